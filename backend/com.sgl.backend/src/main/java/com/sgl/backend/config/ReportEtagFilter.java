@@ -0,0 +1,39 @@
+package com.sgl.backend.config;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Set;
+
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import com.sgl.backend.service.ReportCache;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+// Adds an ETag to the JSON report endpoints and answers a matching
+// If-None-Match with 304, so dashboards revalidating a report skip the body.
+@Component
+public class ReportEtagFilter extends ShallowEtagHeaderFilter {
+
+    private static final Set<String> REPORT_PATHS = Set.of(
+            "/api/attendances/report",
+            "/api/attendances/report/summary",
+            "/api/monitor-attendance/report");
+
+    private static final Duration CLOSED_PERIOD_MAX_AGE = Duration.ofHours(1);
+
+    // Closed periods only change through late bulk scans, so clients may reuse
+    // them for a while; open ones must be revalidated on every request.
+    public static CacheControl cacheControl(LocalDate periodEnd) {
+        return ReportCache.isClosed(periodEnd)
+                ? CacheControl.maxAge(CLOSED_PERIOD_MAX_AGE).cachePrivate()
+                : CacheControl.noCache().cachePrivate();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod()) || !REPORT_PATHS.contains(request.getRequestURI());
+    }
+}
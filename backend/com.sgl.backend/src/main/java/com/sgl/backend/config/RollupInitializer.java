@@ -0,0 +1,55 @@
+package com.sgl.backend.config;
+
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+import com.sgl.backend.repository.AttendanceRepository;
+import com.sgl.backend.repository.AttendanceRollupRepository;
+import com.sgl.backend.repository.MonitorAttendanceRepository;
+import com.sgl.backend.repository.MonitorHoursRollupRepository;
+import com.sgl.backend.service.AttendanceRollupService;
+import com.sgl.backend.service.MonitorHoursRollupService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// Rebuilds each rollup table on startup when its rebuild flag is set, or
+// when it is empty while its source table already has rows.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RollupInitializer implements CommandLineRunner {
+
+    private final AttendanceRollupService attendanceRollupService;
+    private final AttendanceRollupRepository attendanceRollupRepo;
+    private final AttendanceRepository attendanceRepo;
+    private final MonitorHoursRollupService monitorHoursRollupService;
+    private final MonitorHoursRollupRepository monitorHoursRollupRepo;
+    private final MonitorAttendanceRepository monitorAttendanceRepo;
+
+    @Value("${attendance.rollup.rebuild:false}")
+    private boolean rebuildAttendance;
+
+    @Value("${monitor.rollup.rebuild:false}")
+    private boolean rebuildMonitorHours;
+
+    @Override
+    public void run(String... args) {
+        rebuildIfNeeded("attendance", rebuildAttendance, attendanceRollupRepo::count, attendanceRepo::count,
+                attendanceRollupService::rebuild);
+        rebuildIfNeeded("monitor hours", rebuildMonitorHours, monitorHoursRollupRepo::count,
+                monitorAttendanceRepo::count, monitorHoursRollupService::rebuild);
+    }
+
+    private void rebuildIfNeeded(String name, boolean requested, LongSupplier rollupRows, LongSupplier sourceRows,
+            IntSupplier rebuild) {
+        if (requested || (rollupRows.getAsLong() == 0 && sourceRows.getAsLong() > 0)) {
+            int rows = rebuild.getAsInt();
+            log.info("Rebuilt {} rollups: {} rows", name, rows);
+        }
+    }
+}
@@ -39,19 +39,22 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
-                .requestMatchers("/api/auth/**", "/swagger-ui/**", "/v3/api-docs/**").permitAll()
+                .requestMatchers("/api/auth/**", "/swagger-ui/**", "/v3/api-docs/**", "/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasAuthority("ADMIN")
                 .requestMatchers("/api/users/**", "/api/roles/**").hasAuthority("ADMIN")
                 .requestMatchers("/api/attendances/**").hasAnyAuthority("ADMIN", "MONITOR")
                 .requestMatchers(HttpMethod.POST, "/api/laboratories").hasAuthority("ADMIN")
                 .requestMatchers(HttpMethod.PUT, "/api/laboratories/**").hasAuthority("ADMIN")
                 .requestMatchers(HttpMethod.GET, "/api/laboratories").hasAnyAuthority("ADMIN", "DOCENTE")
                 .requestMatchers("/api/practices/**").hasAnyAuthority("ADMIN", "DOCENTE")
-                .requestMatchers("/api/loans").hasAuthority("MONITOR")
+                .requestMatchers("/api/loans", "/api/loans/bulk", "/api/loans/bulk/return").hasAuthority("MONITOR")
                 .requestMatchers("/api/loans/my-active").hasAuthority("ESTUDIANTE")
                 .requestMatchers("/api/loans/active").hasAnyAuthority("ADMIN", "MONITOR")
                 .requestMatchers("/api/loans/*/return").hasAuthority("MONITOR")
                 .requestMatchers("/api/monitor-attendance").hasAuthority("MONITOR")
                 .requestMatchers("/api/monitor-attendance/report/**").hasAuthority("ADMIN")
+                .requestMatchers("/api/monitor-attendance/on-duty").hasAnyAuthority("ADMIN", "MONITOR")
+                .requestMatchers("/api/reports/**").hasAuthority("ADMIN")
                 .requestMatchers("/api/attendances/**").hasAnyAuthority("ADMIN", "MONITOR")
                 .requestMatchers("/api/attendances/report**").hasAuthority("ADMIN")
                 .anyRequest().authenticated()
@@ -1,16 +1,27 @@
 package com.sgl.backend.controller;
 
+import com.sgl.backend.config.ReportEtagFilter;
+import com.sgl.backend.dto.AttendancePageResponse;
 import com.sgl.backend.dto.AttendanceReportDTO;
 import com.sgl.backend.dto.AttendanceSummaryDTO;
+import com.sgl.backend.dto.BulkAttendanceRequest;
+import com.sgl.backend.dto.BulkAttendanceResult;
+import com.sgl.backend.dto.OccupancyResponse;
 import com.sgl.backend.entity.Attendance;
+import com.sgl.backend.service.AttendanceJournal;
 import com.sgl.backend.service.AttendanceService;
+import com.sgl.backend.service.OccupancyFeed;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
@@ -22,6 +33,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/attendances")
@@ -30,33 +42,65 @@ import org.springframework.web.bind.annotation.*;
 public class AttendanceController {
 
         private final AttendanceService attendanceService;
+        private final AttendanceJournal attendanceJournal;
+        private final OccupancyFeed occupancyFeed;
 
         @PostMapping("/{code}")
         @Operation(summary = "Register attendance", description = "Registers attendance for a user by scanning their barcode. Restricted to ADMIN or MONITOR.")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "Attendance registered successfully"),
+                        @ApiResponse(responseCode = "202", description = "Attendance journaled; it is stored in the background"),
                         @ApiResponse(responseCode = "400", description = "Invalid user code or attendance already registered today"),
                         @ApiResponse(responseCode = "401", description = "Unauthorized: Requires ADMIN or MONITOR role"),
                         @ApiResponse(responseCode = "500", description = "Internal server error")
         })
         public ResponseEntity<Attendance> registerAttendance(@PathVariable String code) {
+                if (attendanceJournal.isEnabled()) {
+                        return ResponseEntity.accepted().body(attendanceService.journalAttendance(code));
+                }
                 Attendance attendance = attendanceService.registerAttendance(code);
                 return ResponseEntity.ok(attendance);
         }
 
+        @PostMapping("/bulk")
+        @Operation(summary = "Register attendances in bulk", description = "Registers a burst of scans at once and returns one result per code. Restricted to ADMIN or MONITOR.")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Scans processed; see the status of each result"),
+                        @ApiResponse(responseCode = "400", description = "Empty or oversized batch"),
+                        @ApiResponse(responseCode = "401", description = "Unauthorized: Requires ADMIN or MONITOR role")
+        })
+        public ResponseEntity<List<BulkAttendanceResult>> registerAttendances(
+                        @Valid @RequestBody BulkAttendanceRequest request) {
+                return ResponseEntity.ok(attendanceService.registerAttendances(request.getScans()));
+        }
+
         @GetMapping
-        @Operation(summary = "List attendances", description = "Retrieves attendance records filtered by date range or user. Restricted to ADMIN or MONITOR.")
+        @Operation(summary = "List attendances", description = "Retrieves attendance records, newest first, filtered by date range and/or user. Pass the returned nextCursor to fetch the following page. Restricted to ADMIN or MONITOR.")
         @ApiResponses(value = {
-                        @ApiResponse(responseCode = "200", description = "List of attendances retrieved"),
+                        @ApiResponse(responseCode = "200", description = "Page of attendances retrieved"),
+                        @ApiResponse(responseCode = "400", description = "Invalid cursor or page size"),
                         @ApiResponse(responseCode = "401", description = "Unauthorized: Requires ADMIN or MONITOR role"),
                         @ApiResponse(responseCode = "500", description = "Internal server error")
         })
-        public ResponseEntity<List<Attendance>> getAttendances(
+        public ResponseEntity<AttendancePageResponse> getAttendances(
                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
-                        @RequestParam(required = false) String userCode) {
-                List<Attendance> attendances = attendanceService.getAttendances(start, end, userCode);
-                return ResponseEntity.ok(attendances);
+                        @RequestParam(required = false) String userCode,
+                        @RequestParam(defaultValue = "50") int size,
+                        @RequestParam(required = false) String cursor) {
+                return ResponseEntity.ok(attendanceService.getAttendances(start, end, userCode, size, cursor));
+        }
+
+        @GetMapping("/occupancy")
+        @Operation(summary = "Current lab occupancy", description = "Number of people who entered the lab today. Restricted to ADMIN or MONITOR.")
+        public ResponseEntity<OccupancyResponse> getOccupancy() {
+                return ResponseEntity.ok(occupancyFeed.current());
+        }
+
+        @GetMapping(value = "/occupancy/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+        @Operation(summary = "Lab occupancy feed", description = "Server-Sent Events stream that sends the current occupancy on connect and an \"occupancy\" event whenever it changes. Restricted to ADMIN or MONITOR.")
+        public SseEmitter streamOccupancy() {
+                return occupancyFeed.subscribe();
         }
 
         @GetMapping("/report")
@@ -64,8 +108,10 @@ public class AttendanceController {
         public ResponseEntity<Page<AttendanceReportDTO>> getMonthlyReport(
                         @RequestParam int year,
                         @RequestParam int month) {
-                Pageable pageable = PageRequest.of(0, 10, Sort.by("user.name").ascending());
-                return ResponseEntity.ok(attendanceService.getMonthlyReport(year, month, pageable));
+                Pageable pageable = PageRequest.of(0, 10, Sort.by("userName").ascending());
+                return ResponseEntity.ok()
+                                .cacheControl(ReportEtagFilter.cacheControl(YearMonth.of(year, month).atEndOfMonth()))
+                                .body(attendanceService.getMonthlyReport(year, month, pageable));
         }
 
         @GetMapping("/report/summary")
@@ -73,35 +119,36 @@ public class AttendanceController {
         public ResponseEntity<AttendanceSummaryDTO> getMonthlySummary(
                         @RequestParam int year,
                         @RequestParam int month) {
-                return ResponseEntity.ok(attendanceService.getMonthlySummary(year, month));
+                return ResponseEntity.ok()
+                                .cacheControl(ReportEtagFilter.cacheControl(YearMonth.of(year, month).atEndOfMonth()))
+                                .body(attendanceService.getMonthlySummary(year, month));
         }
 
         @GetMapping(value = "/report/pdf", produces = MediaType.APPLICATION_PDF_VALUE)
-        @Operation(summary = "Monthly report in PDF format")
-        public ResponseEntity<byte[]> exportPdf(
-                        @RequestParam int year, @RequestParam int month) {
-                Page<AttendanceReportDTO> page = attendanceService.getMonthlyReport(year, month, Pageable.unpaged());
-                byte[] pdf = attendanceService.generateAttendancePdf(page.getContent(), year, month);
-                return ResponseEntity.ok()
-                                .header(HttpHeaders.CONTENT_DISPOSITION,
-                                                "attachment; filename=reporte_asistencia_" + year + "_"
-                                                                + String.format("%02d", month) + ".pdf")
-                                .body(pdf);
+        @Operation(summary = "Monthly report in PDF format", description = "Streams the document to the client as it is built.")
+        public void exportPdf(
+                        @RequestParam int year, @RequestParam int month,
+                        HttpServletResponse response) throws IOException {
+
+                response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+                response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                                "attachment; filename=reporte_asistencia_" + year + "_"
+                                                + String.format("%02d", month) + ".pdf");
+
+                attendanceService.writeAttendancePdf(year, month, response.getOutputStream());
         }
 
         @GetMapping(value = "/report/csv", produces = "text/csv")
-        @Operation(summary = "Monthly report in CSV format")
-        public ResponseEntity<byte[]> exportCsv(
-                        @RequestParam int year, @RequestParam int month) {
-
-                Page<AttendanceReportDTO> page = attendanceService.getMonthlyReport(year, month, Pageable.unpaged());
+        @Operation(summary = "Monthly report in CSV format", description = "Streams rows to the client as they are read.")
+        public void exportCsv(
+                        @RequestParam int year, @RequestParam int month,
+                        HttpServletResponse response) throws IOException {
 
-                byte[] csv = attendanceService.generateAttendanceCsv(page.getContent(), year);
+                response.setContentType("text/csv");
+                response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                                "attachment; filename=reporte_asistencia_" + year + "_"
+                                                + String.format("%02d", month) + ".csv");
 
-                return ResponseEntity.ok()
-                                .header(HttpHeaders.CONTENT_DISPOSITION,
-                                                "attachment; filename=reporte_asistencia_" + year + "_"
-                                                                + String.format("%02d", month) + ".csv")
-                                .body(csv);
+                attendanceService.writeAttendanceCsv(year, month, response.getOutputStream());
         }
-}
\ No newline at end of file
+}
@@ -11,6 +11,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.sgl.backend.dto.BulkLoanRequest;
+import com.sgl.backend.dto.BulkReturnRequest;
 import com.sgl.backend.dto.LoanRequest;
 import com.sgl.backend.dto.LoanResponse;
 import com.sgl.backend.service.LoanService;
@@ -34,6 +36,22 @@ public class LoanController {
         return ResponseEntity.ok(loanService.registerLoan(request));
     }
 
+    @PostMapping("/bulk")
+    @Operation(summary = "Register several loans at once",
+            description = "Lends every barcode in the cart to one student, or none if any unit is unavailable.")
+    public ResponseEntity<List<LoanResponse>> registerBulk(@Valid @RequestBody BulkLoanRequest request) {
+        return ResponseEntity.ok(loanService.registerLoans(request));
+    }
+
+    @PostMapping("/bulk/return")
+    @Operation(summary = "Return several loans at once",
+            description = "Returns every listed loan, or none if any is missing or already returned.")
+    public ResponseEntity<List<LoanResponse>> returnBulk(
+            @Valid @RequestBody BulkReturnRequest request,
+            Authentication authentication) {
+        return ResponseEntity.ok(loanService.returnLoans(request.getLoanIds(), authentication.getName()));
+    }
+
     @PostMapping("/{id}/return")
     @Operation(summary = "Return equipment")
     public ResponseEntity<LoanResponse> returnLoan(
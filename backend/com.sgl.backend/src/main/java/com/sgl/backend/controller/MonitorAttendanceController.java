@@ -1,6 +1,8 @@
 package com.sgl.backend.controller;
 
+import java.io.IOException;
 import java.time.LocalDate;
+import java.util.List;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -17,13 +19,16 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.sgl.backend.config.ReportEtagFilter;
 import com.sgl.backend.dto.AttendanceRequest;
 import com.sgl.backend.dto.AttendanceResponse;
 import com.sgl.backend.dto.MonitorReportResponse;
+import com.sgl.backend.dto.OnDutyResponse;
 import com.sgl.backend.service.MonitorAttendanceService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
@@ -41,6 +46,12 @@ public class MonitorAttendanceController {
                 return ResponseEntity.ok(service.registerAttendance(request));
         }
 
+        @GetMapping("on-duty")
+        @Operation(summary = "Monitors on duty", description = "Monitors with an open shift today, answered from memory.")
+        public ResponseEntity<List<OnDutyResponse>> getOnDuty() {
+                return ResponseEntity.ok(service.getOnDuty());
+        }
+
         @GetMapping("report")
         @Operation(summary = "Attendance report", description = "Admin only")
         public ResponseEntity<Page<MonitorReportResponse>> getReport(
@@ -49,36 +60,36 @@ public class MonitorAttendanceController {
 
                 Pageable pageable = PageRequest.of(0, 10, Sort.by("name").ascending());
 
-                return ResponseEntity.ok(service.getReport(start, end, pageable));
+                return ResponseEntity.ok()
+                                .cacheControl(ReportEtagFilter.cacheControl(end))
+                                .body(service.getReport(start, end, pageable));
         }
 
         @GetMapping(value = "/report/pdf", produces = MediaType.APPLICATION_PDF_VALUE)
-        @Operation(summary = "PDF report")
-        public ResponseEntity<byte[]> getReportPdf(
+        @Operation(summary = "PDF report", description = "Streams the document to the client as it is built.")
+        public void getReportPdf(
                         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
-                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end) {
+                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
+                        HttpServletResponse response) throws IOException {
 
-                Page<MonitorReportResponse> page = service.getReport(start, end, Pageable.unpaged());
-                byte[] pdf = service.generateMonitorReportPdf(page.getContent(), start, end);
+                response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+                response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                                "attachment; filename=reporte_asistencia_" + start + "_" + end + ".pdf");
 
-                return ResponseEntity.ok()
-                                .header(HttpHeaders.CONTENT_DISPOSITION,
-                                                "attachment; filename=reporte_asistencia_" + start + "_" + end + ".pdf")
-                                .body(pdf);
+                service.writeMonitorReportPdf(start, end, response.getOutputStream());
         }
 
         @GetMapping(value = "/report/csv", produces = "text/csv")
-        @Operation(summary = "CSV report")
-        public ResponseEntity<byte[]> getReportCsv(
+        @Operation(summary = "CSV report", description = "Streams rows to the client as they are read.")
+        public void getReportCsv(
                         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
-                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end) {
+                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
+                        HttpServletResponse response) throws IOException {
 
-                Page<MonitorReportResponse> page = service.getReport(start, end, Pageable.unpaged());
-                byte[] csv = service.generateMonitorReportCsv(page.getContent());
+                response.setContentType("text/csv");
+                response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                                "attachment; filename=reporte_asistencia_" + start + "_" + end + ".csv");
 
-                return ResponseEntity.ok()
-                                .header(HttpHeaders.CONTENT_DISPOSITION,
-                                                "attachment; filename=reporte_asistencia_" + start + "_" + end + ".csv")
-                                .body(csv);
+                service.writeMonitorReportCsv(start, end, response.getOutputStream());
         }
 }
@@ -0,0 +1,55 @@
+package com.sgl.backend.controller;
+
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.sgl.backend.dto.ReportJobRequest;
+import com.sgl.backend.dto.ReportJobResponse;
+import com.sgl.backend.service.ReportJobService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/reports/jobs")
+@RequiredArgsConstructor
+@Tag(name = "Report Jobs")
+public class ReportJobController {
+
+        private final ReportJobService reportJobService;
+
+        @PostMapping
+        @Operation(summary = "Submit report job", description = "Queues a PDF or CSV report. Identical pending requests share one job.")
+        public ResponseEntity<ReportJobResponse> submit(@Valid @RequestBody ReportJobRequest request) {
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(reportJobService.submit(request));
+        }
+
+        @GetMapping("/{id}")
+        @Operation(summary = "Report job status")
+        public ResponseEntity<ReportJobResponse> getJob(@PathVariable String id) {
+                return ResponseEntity.ok(reportJobService.getJob(id));
+        }
+
+        @GetMapping("/{id}/file")
+        @Operation(summary = "Download finished report")
+        public ResponseEntity<Resource> download(@PathVariable String id) {
+                ReportJobResponse job = reportJobService.getJob(id);
+                Resource artifact = reportJobService.getArtifact(id);
+
+                return ResponseEntity.ok()
+                                .contentType(MediaType.parseMediaType(job.getFormat().getContentType()))
+                                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + job.getFileName())
+                                .body(artifact);
+        }
+}
@@ -1,5 +1,6 @@
 package com.sgl.backend.controller;
 
+import com.sgl.backend.dto.UserResponse;
 import com.sgl.backend.entity.User;
 import com.sgl.backend.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -41,8 +42,8 @@ public class UserController {
             @ApiResponse(responseCode = "401", description = "Unauthorized: Requires ADMIN role"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
+    public ResponseEntity<List<UserResponse>> getAllUsers() {
+        List<UserResponse> users = userService.getAllUsers();
         return ResponseEntity.ok(users);
     }
 }
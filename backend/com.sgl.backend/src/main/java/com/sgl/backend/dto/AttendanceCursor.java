@@ -0,0 +1,31 @@
+package com.sgl.backend.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import com.sgl.backend.entity.Attendance;
+import com.sgl.backend.exception.SglException;
+
+public record AttendanceCursor(LocalDateTime timestamp, Long id) {
+
+    public static AttendanceCursor after(Attendance attendance) {
+        return new AttendanceCursor(attendance.getTimestamp(), attendance.getId());
+    }
+
+    public static AttendanceCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf('|');
+            return new AttendanceCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new SglException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((timestamp + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
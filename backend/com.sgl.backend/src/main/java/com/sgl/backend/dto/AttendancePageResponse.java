@@ -0,0 +1,15 @@
+package com.sgl.backend.dto;
+
+import java.util.List;
+
+import com.sgl.backend.entity.Attendance;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class AttendancePageResponse {
+    private List<Attendance> items;
+    private String nextCursor;
+}
@@ -0,0 +1,25 @@
+package com.sgl.backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class BulkAttendanceRequest {
+    @NotEmpty
+    @Size(max = 500)
+    private List<@Valid Scan> scans;
+
+    @Data
+    public static class Scan {
+        @NotBlank
+        private String code;
+
+        private LocalDateTime timestamp;
+    }
+}
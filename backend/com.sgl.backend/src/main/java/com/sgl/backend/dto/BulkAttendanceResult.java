@@ -0,0 +1,21 @@
+package com.sgl.backend.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BulkAttendanceResult {
+    private String code;
+    private ScanStatus status;
+    private LocalDateTime timestamp;
+    private String message;
+
+    // DEFERRED: the user could not be looked up because OPAC is unavailable;
+    // nothing was stored for the scan and it can be sent again later.
+    public enum ScanStatus {
+        REGISTERED, DUPLICATE, REJECTED, DEFERRED
+    }
+}
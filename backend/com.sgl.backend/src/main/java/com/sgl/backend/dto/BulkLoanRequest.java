@@ -0,0 +1,24 @@
+package com.sgl.backend.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BulkLoanRequest {
+
+    @NotEmpty(message = "At least one barcode is mandatory")
+    @Size(max = 20)
+    private List<@NotBlank String> barcodes;
+
+    @NotBlank(message = "Student code is mandatory")
+    private String studentCode;
+
+    @NotBlank(message = "Monitor code is mandatory")
+    private String monitorCode;
+}
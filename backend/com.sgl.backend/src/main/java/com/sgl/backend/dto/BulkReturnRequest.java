@@ -0,0 +1,15 @@
+package com.sgl.backend.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class BulkReturnRequest {
+    @NotEmpty(message = "At least one loan id is mandatory")
+    @Size(max = 20)
+    private List<@NotNull Long> loanIds;
+}
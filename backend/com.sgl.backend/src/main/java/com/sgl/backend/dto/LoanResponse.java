@@ -4,11 +4,13 @@ import java.time.LocalDateTime;
 
 import com.sgl.backend.entity.Loan.LoanStatus;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
 @Data
 @Builder
+@AllArgsConstructor
 public class LoanResponse {
     private Long id;
     private String equipmentName;
@@ -0,0 +1,13 @@
+package com.sgl.backend.dto;
+
+import java.time.LocalDate;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class OccupancyResponse {
+    private LocalDate date;
+    private long present;
+}
@@ -0,0 +1,14 @@
+package com.sgl.backend.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class OnDutyResponse {
+    private String monitorCode;
+    private String monitorName;
+    private LocalDateTime checkIn;
+}
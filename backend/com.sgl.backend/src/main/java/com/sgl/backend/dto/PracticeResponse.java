@@ -5,11 +5,13 @@ import java.time.LocalTime;
 
 import com.sgl.backend.entity.PracticeType;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
 @Data
 @Builder
+@AllArgsConstructor
 public class PracticeResponse {
     private Long id;
     private String subject;
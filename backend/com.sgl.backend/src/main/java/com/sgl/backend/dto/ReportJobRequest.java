@@ -0,0 +1,47 @@
+package com.sgl.backend.dto;
+
+import java.time.LocalDate;
+
+import org.springframework.http.MediaType;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class ReportJobRequest {
+    @NotNull
+    private ReportType type;
+
+    @NotNull
+    private ReportFormat format;
+
+    private Integer year;
+    private Integer month;
+    private LocalDate start;
+    private LocalDate end;
+
+    public enum ReportType {
+        ATTENDANCE, MONITOR
+    }
+
+    public enum ReportFormat {
+        PDF(MediaType.APPLICATION_PDF_VALUE, "pdf"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        ReportFormat(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+}
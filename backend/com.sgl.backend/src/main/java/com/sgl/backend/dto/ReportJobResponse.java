@@ -0,0 +1,26 @@
+package com.sgl.backend.dto;
+
+import java.time.LocalDateTime;
+
+import com.sgl.backend.dto.ReportJobRequest.ReportFormat;
+import com.sgl.backend.dto.ReportJobRequest.ReportType;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ReportJobResponse {
+    private String id;
+    private ReportType type;
+    private ReportFormat format;
+    private JobStatus status;
+    private String fileName;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+
+    public enum JobStatus {
+        QUEUED, RUNNING, DONE, FAILED
+    }
+}
@@ -0,0 +1,29 @@
+package com.sgl.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserResponse {
+    private String code;
+    private String name;
+    private String email;
+    private String document;
+    private RoleSummary role;
+
+    // Constructor expression target for UserRepository.findAllResponses
+    public UserResponse(String code, String name, String email, String document, Long roleId, String roleName) {
+        this(code, name, email, document, new RoleSummary(roleId, roleName));
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RoleSummary {
+        private Long id;
+        private String name;
+    }
+}
@@ -3,10 +3,16 @@ package com.sgl.backend.entity;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "attendances")
+@Table(name = "attendances", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_attendances_user_date", columnNames = { "user_code", "attendance_date" })
+}, indexes = {
+        @Index(name = "idx_attendances_user_code_timestamp", columnList = "user_code, timestamp"),
+        @Index(name = "idx_attendances_timestamp_id", columnList = "timestamp, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -18,10 +24,20 @@ public class Attendance {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_code", nullable = false)
     private User user;
 
     @Column(nullable = false)
     private LocalDateTime timestamp;
+
+    @Column(name = "attendance_date", nullable = false)
+    private LocalDate attendanceDate;
+
+    @PrePersist
+    void assignAttendanceDate() {
+        if (attendanceDate == null && timestamp != null) {
+            attendanceDate = timestamp.toLocalDate();
+        }
+    }
 }
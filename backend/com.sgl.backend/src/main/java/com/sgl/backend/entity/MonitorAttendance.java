@@ -5,6 +5,7 @@ import java.time.LocalDateTime;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -31,7 +32,7 @@ public class MonitorAttendance {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "monitor_code", nullable = false)
     private User monitor;
 
@@ -42,6 +43,10 @@ public class MonitorAttendance {
 
     private LocalDateTime checkOut;
 
+    @Column(nullable = false)
+    @Builder.Default
+    private boolean autoClosed = false;
+
     @Transient
     private Double hoursWorked;
 }
@@ -0,0 +1,45 @@
+package com.sgl.backend.entity;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(name = "monitor_hours_rollups", uniqueConstraints = @UniqueConstraint(
+        name = "uk_monitor_hours_rollups_day", columnNames = { "monitor_code", "work_date" }),
+        indexes = @Index(name = "idx_monitor_hours_rollups_work_date", columnList = "work_date"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MonitorHoursRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "monitor_code", nullable = false)
+    private String monitorCode;
+
+    @Column(name = "work_date", nullable = false)
+    private LocalDate workDate;
+
+    @Column(nullable = false)
+    private Long minutes;
+
+    @Column(nullable = false)
+    private Integer shifts;
+}
@@ -1,48 +1,150 @@
 package com.sgl.backend.repository;
 
 import com.sgl.backend.entity.Attendance;
-import com.sgl.backend.entity.User;
+
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Stream;
 
+// Period queries repeat their timestamp range as half-open attendanceDate
+// bounds so PostgreSQL can prune the monthly partitions. Callers pass a
+// midnight periodEnd, which keeps the date bound exact.
 @Repository
-public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
-        Optional<Attendance> findByUserAndTimestampBetween(User user, LocalDateTime start, LocalDateTime end);
+public interface AttendanceRepository extends JpaRepository<Attendance, Long>, AttendanceRepositoryCustom {
+        @Query("SELECT MIN(a.attendanceDate) FROM Attendance a")
+        LocalDate findEarliestAttendanceDate();
 
-        List<Attendance> findByUserCode(String userCode);
+        @Query("SELECT a.user.code FROM Attendance a WHERE a.attendanceDate = :date")
+        List<String> findUserCodesByAttendanceDate(@Param("date") LocalDate date);
 
-        List<Attendance> findByTimestampBetween(LocalDateTime start, LocalDateTime end);
+        @Query("""
+                        SELECT COUNT(a) AS totalAttendances, COUNT(DISTINCT a.user.code) AS totalUsers,
+                               MIN(a.attendanceDate) AS firstAttendance, MAX(a.attendanceDate) AS lastAttendance
+                        FROM Attendance a
+                        WHERE a.timestamp >= :periodStart
+                          AND a.timestamp < :periodEnd
+                          AND a.attendanceDate >= CAST(:periodStart AS LocalDate)
+                          AND a.attendanceDate < CAST(:periodEnd AS LocalDate)
+                        """)
+        PeriodSummary summarizePeriod(
+                        @Param("periodStart") LocalDateTime periodStart,
+                        @Param("periodEnd") LocalDateTime periodEnd);
 
         @Query("""
-                        SELECT a FROM Attendance a
-                        WHERE YEAR(a.timestamp) = :year
-                          AND MONTH(a.timestamp) = :month
-                        ORDER BY a.timestamp
+                        SELECT CAST(a.timestamp AS LocalDate) AS date, r.name AS roleName, COUNT(a) AS total
+                        FROM Attendance a JOIN a.user u JOIN u.role r
+                        GROUP BY CAST(a.timestamp AS LocalDate), r.name
+                        """)
+        List<DailyRoleCount> countPerDayAndRole();
+
+        @Query(value = """
+                        SELECT u.code AS userCode, u.name AS userName, r.name AS userRole,
+                               COUNT(a) AS totalAttendances
+                        FROM Attendance a JOIN a.user u JOIN u.role r
+                        WHERE a.timestamp >= :periodStart
+                          AND a.timestamp < :periodEnd
+                          AND a.attendanceDate >= CAST(:periodStart AS LocalDate)
+                          AND a.attendanceDate < CAST(:periodEnd AS LocalDate)
+                        GROUP BY u.code, u.name, r.name
+                        """, countQuery = """
+                        SELECT COUNT(DISTINCT a.user.code) FROM Attendance a
+                        WHERE a.timestamp >= :periodStart
+                          AND a.timestamp < :periodEnd
+                          AND a.attendanceDate >= CAST(:periodStart AS LocalDate)
+                          AND a.attendanceDate < CAST(:periodEnd AS LocalDate)
                         """)
-        Page<Attendance> findByYearAndMonth(
-                        @Param("year") int year,
-                        @Param("month") int month,
+        Page<UserMonthlyCount> countPerUserByPeriod(
+                        @Param("periodStart") LocalDateTime periodStart,
+                        @Param("periodEnd") LocalDateTime periodEnd,
                         Pageable pageable);
 
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+        @Query("""
+                        SELECT u.code AS userCode, u.name AS userName, r.name AS userRole,
+                               COUNT(a) AS totalAttendances
+                        FROM Attendance a JOIN a.user u JOIN u.role r
+                        WHERE a.timestamp >= :periodStart
+                          AND a.timestamp < :periodEnd
+                          AND a.attendanceDate >= CAST(:periodStart AS LocalDate)
+                          AND a.attendanceDate < CAST(:periodEnd AS LocalDate)
+                        GROUP BY u.code, u.name, r.name
+                        ORDER BY u.name, u.code
+                        """)
+        Stream<UserMonthlyCount> streamPerUserByPeriod(
+                        @Param("periodStart") LocalDateTime periodStart,
+                        @Param("periodEnd") LocalDateTime periodEnd);
+
+        @Query("""
+                        SELECT DISTINCT a.user.code AS userCode, CAST(a.timestamp AS LocalDate) AS date
+                        FROM Attendance a
+                        WHERE a.timestamp >= :periodStart
+                          AND a.timestamp < :periodEnd
+                          AND a.attendanceDate >= CAST(:periodStart AS LocalDate)
+                          AND a.attendanceDate < CAST(:periodEnd AS LocalDate)
+                        """)
+        List<UserAttendanceDate> findAttendanceDatesByPeriod(
+                        @Param("periodStart") LocalDateTime periodStart,
+                        @Param("periodEnd") LocalDateTime periodEnd);
+
         @Query("""
-                        SELECT COUNT(a) FROM Attendance a
-                        WHERE a.user.code = :userCode
-                          AND YEAR(a.timestamp) = :year
-                          AND MONTH(a.timestamp) = :month
+                        SELECT DISTINCT a.user.code AS userCode, CAST(a.timestamp AS LocalDate) AS date
+                        FROM Attendance a
+                        WHERE a.user.code IN :userCodes
+                          AND a.timestamp >= :periodStart
+                          AND a.timestamp < :periodEnd
+                          AND a.attendanceDate >= CAST(:periodStart AS LocalDate)
+                          AND a.attendanceDate < CAST(:periodEnd AS LocalDate)
                         """)
-        long countByUserAndYearMonth(@Param("userCode") String userCode,
-                        @Param("year") int year,
-                        @Param("month") int month);
+        List<UserAttendanceDate> findAttendanceDatesByUsersAndPeriod(
+                        @Param("userCodes") Collection<String> userCodes,
+                        @Param("periodStart") LocalDateTime periodStart,
+                        @Param("periodEnd") LocalDateTime periodEnd);
+
+        interface UserMonthlyCount {
+                String getUserCode();
+
+                String getUserName();
+
+                String getUserRole();
+
+                long getTotalAttendances();
+        }
+
+        interface PeriodSummary {
+                long getTotalAttendances();
+
+                long getTotalUsers();
+
+                LocalDate getFirstAttendance();
+
+                LocalDate getLastAttendance();
+        }
+
+        interface DailyRoleCount {
+                LocalDate getDate();
+
+                String getRoleName();
+
+                long getTotal();
+        }
+
+        interface UserAttendanceDate {
+                String getUserCode();
 
-        @Query("SELECT COUNT(a) FROM Attendance a WHERE YEAR(a.timestamp) = :year AND MONTH(a.timestamp) = :month")
-        int countByYearAndMonth(@Param("year") int year, @Param("month") int month);
+                LocalDate getDate();
+        }
 }
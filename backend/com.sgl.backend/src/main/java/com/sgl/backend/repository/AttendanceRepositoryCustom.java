@@ -0,0 +1,15 @@
+package com.sgl.backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.sgl.backend.dto.AttendanceCursor;
+import com.sgl.backend.entity.Attendance;
+
+public interface AttendanceRepositoryCustom {
+
+        void insertAll(List<Attendance> attendances);
+
+        List<Attendance> findPage(String userCode, LocalDateTime start, LocalDateTime end,
+                        AttendanceCursor after, int limit);
+}
@@ -0,0 +1,87 @@
+package com.sgl.backend.repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.sgl.backend.dto.AttendanceCursor;
+import com.sgl.backend.entity.Attendance;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class AttendanceRepositoryImpl implements AttendanceRepositoryCustom {
+
+        private static final int BATCH_SIZE = 100;
+
+        private final JdbcTemplate jdbcTemplate;
+
+        @PersistenceContext
+        private EntityManager entityManager;
+
+        // Attendance ids are IDENTITY-generated, which disables Hibernate insert
+        // batching, so bulk scans go straight to a JDBC batch.
+        @Override
+        public void insertAll(List<Attendance> attendances) {
+                jdbcTemplate.batchUpdate("INSERT INTO attendances (user_code, timestamp, attendance_date) VALUES (?, ?, ?)",
+                                attendances, BATCH_SIZE, (ps, attendance) -> {
+                                        ps.setString(1, attendance.getUser().getCode());
+                                        ps.setTimestamp(2, Timestamp.valueOf(attendance.getTimestamp()));
+                                        ps.setDate(3, Date.valueOf(attendance.getTimestamp().toLocalDate()));
+                                });
+        }
+
+        // Newest first, seeking past the (timestamp, id) of the previous page's
+        // last row instead of using an offset. The attendanceDate bounds let
+        // PostgreSQL skip monthly partitions outside the range.
+        @Override
+        public List<Attendance> findPage(String userCode, LocalDateTime start, LocalDateTime end,
+                        AttendanceCursor after, int limit) {
+                CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+                CriteriaQuery<Attendance> query = cb.createQuery(Attendance.class);
+                Root<Attendance> attendance = query.from(Attendance.class);
+                attendance.fetch("user").fetch("role");
+
+                Path<LocalDateTime> timestamp = attendance.get("timestamp");
+                Path<Long> id = attendance.get("id");
+                Path<LocalDate> date = attendance.get("attendanceDate");
+                List<Predicate> filters = new ArrayList<>();
+                if (userCode != null) {
+                        filters.add(cb.equal(attendance.get("user").get("code"), userCode));
+                }
+                if (start != null) {
+                        filters.add(cb.greaterThanOrEqualTo(timestamp, start));
+                        filters.add(cb.greaterThanOrEqualTo(date, start.toLocalDate()));
+                }
+                if (end != null) {
+                        filters.add(cb.lessThanOrEqualTo(timestamp, end));
+                        filters.add(cb.lessThanOrEqualTo(date, end.toLocalDate()));
+                }
+                if (after != null) {
+                        filters.add(cb.lessThanOrEqualTo(date, after.timestamp().toLocalDate()));
+                        filters.add(cb.or(
+                                        cb.lessThan(timestamp, after.timestamp()),
+                                        cb.and(cb.equal(timestamp, after.timestamp()), cb.lessThan(id, after.id()))));
+                }
+
+                query.select(attendance)
+                                .where(filters.toArray(Predicate[]::new))
+                                .orderBy(cb.desc(timestamp), cb.desc(id));
+
+                return entityManager.createQuery(query)
+                                .setMaxResults(limit)
+                                .getResultList();
+        }
+}
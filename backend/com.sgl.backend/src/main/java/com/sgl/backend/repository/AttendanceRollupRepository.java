@@ -0,0 +1,24 @@
+package com.sgl.backend.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.sgl.backend.entity.AttendanceRollup;
+import com.sgl.backend.entity.AttendanceRollup.Granularity;
+
+@Repository
+public interface AttendanceRollupRepository extends JpaRepository<AttendanceRollup, Long>, AttendanceRollupRepositoryCustom {
+
+        List<AttendanceRollup> findByGranularityAndBucketDateBetween(
+                        Granularity granularity, LocalDate start, LocalDate end);
+
+        @Modifying
+        @Query("DELETE FROM AttendanceRollup r WHERE r.bucketDate >= :from")
+        int deleteFromBucketDate(@Param("from") LocalDate from);
+}
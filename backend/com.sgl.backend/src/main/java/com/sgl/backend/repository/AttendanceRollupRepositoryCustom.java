@@ -0,0 +1,11 @@
+package com.sgl.backend.repository;
+
+import java.time.LocalDate;
+
+import com.sgl.backend.entity.AttendanceRollup.Granularity;
+
+public interface AttendanceRollupRepositoryCustom {
+
+        // Adds to the bucket, creating it if it does not exist yet.
+        void increment(Granularity granularity, LocalDate bucketDate, String roleName, long amount);
+}
@@ -0,0 +1,40 @@
+package com.sgl.backend.repository;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import com.sgl.backend.entity.AttendanceRollup.Granularity;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+public class AttendanceRollupRepositoryImpl implements AttendanceRollupRepositoryCustom {
+
+        private static final String ON_CONFLICT = """
+                        INSERT INTO attendance_rollups (granularity, bucket_date, role_name, total)
+                        VALUES (:granularity, :bucketDate, :roleName, :amount)
+                        ON CONFLICT (granularity, bucket_date, role_name)
+                        DO UPDATE SET total = attendance_rollups.total + EXCLUDED.total
+                        """;
+
+        private static final String MERGE = """
+                        MERGE INTO attendance_rollups r
+                        USING (VALUES (1)) AS s(x)
+                        ON r.granularity = :granularity AND r.bucket_date = :bucketDate AND r.role_name = :roleName
+                        WHEN MATCHED THEN UPDATE SET total = r.total + :amount
+                        WHEN NOT MATCHED THEN INSERT (granularity, bucket_date, role_name, total)
+                        VALUES (:granularity, :bucketDate, :roleName, :amount)
+                        """;
+
+        @PersistenceContext
+        private EntityManager entityManager;
+
+        @Override
+        public void increment(Granularity granularity, LocalDate bucketDate, String roleName, long amount) {
+                RollupUpserts.execute(entityManager, ON_CONFLICT, MERGE, Map.of(
+                                "granularity", granularity.name(),
+                                "bucketDate", bucketDate,
+                                "roleName", roleName,
+                                "amount", amount));
+        }
+}
@@ -1,11 +1,44 @@
 package com.sgl.backend.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.sgl.backend.entity.Equipment;
+import com.sgl.backend.entity.Equipment.EquipmentStatus;
 
+// Stock changes are single conditional UPDATEs: the database re-checks the
+// WHERE clause under the row lock, so concurrent checkouts of one barcode
+// can neither oversell nor lose an update. Equipment is deliberately not in
+// the second-level cache: every checkout and return writes the row, and a
+// bulk UPDATE evicts the whole region, so it would almost never hit.
 public interface EquipmentRepository extends JpaRepository<Equipment, Long> {
     Optional<Equipment> findByBarcode(String barcode);
+
+    List<Equipment> findAllByBarcodeIn(Collection<String> barcodes);
+
+    // Returns 0 when fewer than the requested units were left.
+    @Modifying
+    @Query("""
+            UPDATE Equipment e
+            SET e.availableUnits = e.availableUnits - :units,
+                e.status = CASE WHEN e.availableUnits = :units THEN :loaned ELSE e.status END
+            WHERE e.id = :id AND e.availableUnits >= :units
+            """)
+    int takeUnits(@Param("id") Long id, @Param("units") int units, @Param("loaned") EquipmentStatus loaned);
+
+    // Returns 0 when restocking would exceed the total units.
+    @Modifying
+    @Query("""
+            UPDATE Equipment e
+            SET e.availableUnits = e.availableUnits + :units, e.status = :available
+            WHERE e.id = :id AND e.availableUnits + :units <= e.totalUnits
+            """)
+    int returnUnits(@Param("id") Long id, @Param("units") int units,
+            @Param("available") EquipmentStatus available);
 }
@@ -2,16 +2,24 @@ package com.sgl.backend.repository;
 
 import java.util.Optional;
 
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.sgl.backend.entity.Laboratory;
 
 @Repository
 public interface LaboratoryRepository extends JpaRepository<Laboratory, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Laboratory> findByNameAndActive(String name, boolean active);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Laboratory> findFirstByActiveTrue();
+
     Page<Laboratory> findByActiveTrue(Pageable pageable);
 }
@@ -1,14 +1,57 @@
 package com.sgl.backend.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.sgl.backend.dto.LoanResponse;
 import com.sgl.backend.entity.Loan;
 import com.sgl.backend.entity.Loan.LoanStatus;
 
-public interface LoanRepository extends JpaRepository<Loan, Long> {
-    List<Loan> findByStudentCodeAndStatus(String studentCode, LoanStatus status);
-    List<Loan> findByStatus(LoanStatus status);
+public interface LoanRepository extends JpaRepository<Loan, Long>, LoanRepositoryCustom {
+    @Override
+    @EntityGraph(attributePaths = { "equipment", "student", "monitor" })
+    Optional<Loan> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = { "equipment", "student", "monitor" })
+    List<Loan> findAllById(Iterable<Long> ids);
+
+    @Query("""
+            SELECT new com.sgl.backend.dto.LoanResponse(l.id, e.name, e.barcode, s.name, m.name,
+                   l.loanDateTime, l.returnDateTime, l.status)
+            FROM Loan l JOIN l.equipment e JOIN l.student s JOIN l.monitor m
+            WHERE s.code = :studentCode AND l.status = :status
+            ORDER BY l.loanDateTime DESC
+            """)
+    List<LoanResponse> findResponsesByStudentCodeAndStatus(@Param("studentCode") String studentCode,
+            @Param("status") LoanStatus status);
+
+    @Query("""
+            SELECT new com.sgl.backend.dto.LoanResponse(l.id, e.name, e.barcode, s.name, m.name,
+                   l.loanDateTime, l.returnDateTime, l.status)
+            FROM Loan l JOIN l.equipment e JOIN l.student s JOIN l.monitor m
+            WHERE l.status = :status
+            ORDER BY l.loanDateTime DESC
+            """)
+    List<LoanResponse> findResponsesByStatus(@Param("status") LoanStatus status);
+
     boolean existsByIdAndStatus(Long id, LoanStatus status);
+
+    // Flips the loans to RETURNED only while they are still active; a count
+    // below ids.size() means another request returned some of them first.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Loan l SET l.status = :returned, l.returnDateTime = :returnedAt
+            WHERE l.id IN :ids AND l.status = :active
+            """)
+    int markReturned(@Param("ids") Collection<Long> ids, @Param("returnedAt") LocalDateTime returnedAt,
+            @Param("active") LoanStatus active, @Param("returned") LoanStatus returned);
 }
@@ -0,0 +1,10 @@
+package com.sgl.backend.repository;
+
+import java.util.List;
+
+import com.sgl.backend.entity.Loan;
+
+public interface LoanRepositoryCustom {
+
+        void insertAll(List<Loan> loans);
+}
@@ -0,0 +1,49 @@
+package com.sgl.backend.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.List;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.sgl.backend.entity.Loan;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class LoanRepositoryImpl implements LoanRepositoryCustom {
+
+        private static final String INSERT = "INSERT INTO loans (equipment_id, student_code, monitor_code, "
+                        + "loan_date_time, status) VALUES (?, ?, ?, ?, ?)";
+
+        private final JdbcTemplate jdbcTemplate;
+
+        // Loan ids are IDENTITY-generated, which disables Hibernate insert
+        // batching, so a multi-item checkout goes out as one JDBC batch and the
+        // generated ids are copied back onto the loans.
+        @Override
+        public void insertAll(List<Loan> loans) {
+                jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                        try (PreparedStatement ps = connection.prepareStatement(INSERT, new String[] { "id" })) {
+                                for (Loan loan : loans) {
+                                        ps.setLong(1, loan.getEquipment().getId());
+                                        ps.setString(2, loan.getStudent().getCode());
+                                        ps.setString(3, loan.getMonitor().getCode());
+                                        ps.setTimestamp(4, Timestamp.valueOf(loan.getLoanDateTime()));
+                                        ps.setString(5, loan.getStatus().name());
+                                        ps.addBatch();
+                                }
+                                ps.executeBatch();
+                                try (ResultSet keys = ps.getGeneratedKeys()) {
+                                        for (Loan loan : loans) {
+                                                keys.next();
+                                                loan.setId(keys.getLong(1));
+                                        }
+                                }
+                        }
+                        return null;
+                });
+        }
+}
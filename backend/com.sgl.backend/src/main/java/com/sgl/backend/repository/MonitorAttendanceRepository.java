@@ -1,19 +1,83 @@
 package com.sgl.backend.repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.sgl.backend.entity.MonitorAttendance;
 
+import jakarta.persistence.QueryHint;
+
 public interface MonitorAttendanceRepository extends JpaRepository<MonitorAttendance, Long> {
     Optional<MonitorAttendance> findByMonitorCodeAndDate(String monitorCode, LocalDate date);
 
-    List<MonitorAttendance> findByMonitorCodeAndDateBetween(String monitorCode, LocalDate start, LocalDate end);
+    @Query("""
+            SELECT ma FROM MonitorAttendance ma JOIN FETCH ma.monitor m
+            WHERE m.code IN :monitorCodes AND ma.date BETWEEN :start AND :end
+            ORDER BY ma.date, ma.checkIn
+            """)
+    List<MonitorAttendance> findShiftsByMonitorsAndPeriod(@Param("monitorCodes") Collection<String> monitorCodes,
+            @Param("start") LocalDate start, @Param("end") LocalDate end);
 
     List<MonitorAttendance> findByDateBetween(LocalDate start, LocalDate end);
 
     Optional<MonitorAttendance> findFirstByMonitorCodeAndDateOrderByCheckInDesc(String monitorCode, LocalDate date);
+
+    @Query("""
+            SELECT ma FROM MonitorAttendance ma JOIN FETCH ma.monitor
+            WHERE ma.date = :date AND ma.checkIn IS NOT NULL AND ma.checkOut IS NULL
+            """)
+    List<MonitorAttendance> findOpenShifts(@Param("date") LocalDate date);
+
+    // Closes the shift only if it is still open; 0 means another request
+    // closed it first.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE MonitorAttendance ma SET ma.checkOut = :checkOut WHERE ma.id = :id AND ma.checkOut IS NULL")
+    int closeShift(@Param("id") Long id, @Param("checkOut") LocalDateTime checkOut);
+
+    @Query("""
+            SELECT ma FROM MonitorAttendance ma JOIN FETCH ma.monitor
+            WHERE ma.checkOut IS NULL AND ma.checkIn < :cutoff
+            ORDER BY ma.checkIn
+            """)
+    List<MonitorAttendance> findOpenShiftsCheckedInBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE MonitorAttendance ma SET ma.checkOut = ma.checkIn, ma.autoClosed = true
+            WHERE ma.id IN :ids AND ma.checkOut IS NULL
+            """)
+    int autoCloseShifts(@Param("ids") Collection<Long> ids);
+
+    // Shifts closed by a check-out, the source the hours rollup is rebuilt from.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            SELECT m.code AS monitorCode, m.name AS monitorName,
+                   ma.date AS date, ma.checkIn AS checkIn, ma.checkOut AS checkOut
+            FROM MonitorAttendance ma JOIN ma.monitor m
+            WHERE ma.checkIn IS NOT NULL AND ma.checkOut IS NOT NULL AND ma.autoClosed = false
+            """)
+    Stream<MonitorShiftRow> streamClosedShifts();
+
+    interface MonitorShiftRow {
+        String getMonitorCode();
+
+        String getMonitorName();
+
+        LocalDate getDate();
+
+        LocalDateTime getCheckIn();
+
+        LocalDateTime getCheckOut();
+    }
 }
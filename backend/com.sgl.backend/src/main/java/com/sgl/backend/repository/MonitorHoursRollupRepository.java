@@ -0,0 +1,44 @@
+package com.sgl.backend.repository;
+
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.sgl.backend.entity.MonitorHoursRollup;
+
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface MonitorHoursRollupRepository extends JpaRepository<MonitorHoursRollup, Long>,
+                MonitorHoursRollupRepositoryCustom {
+
+        // One row per monitor, monitors without shifts in the range included.
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+        @Query("""
+                        SELECT m.code AS monitorCode, m.name AS monitorName,
+                               COUNT(r.id) AS daysWorked, COALESCE(SUM(r.minutes), 0) AS minutesWorked
+                        FROM User m
+                        LEFT JOIN MonitorHoursRollup r
+                               ON r.monitorCode = m.code AND r.workDate BETWEEN :start AND :end
+                        WHERE m.role.name = 'MONITOR'
+                        GROUP BY m.code, m.name
+                        ORDER BY m.name, m.code
+                        """)
+        Stream<MonitorHoursTotal> streamTotalsByPeriod(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+        interface MonitorHoursTotal {
+                String getMonitorCode();
+
+                String getMonitorName();
+
+                long getDaysWorked();
+
+                long getMinutesWorked();
+        }
+}
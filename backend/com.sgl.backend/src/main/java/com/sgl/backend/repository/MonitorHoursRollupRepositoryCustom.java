@@ -0,0 +1,9 @@
+package com.sgl.backend.repository;
+
+import java.time.LocalDate;
+
+public interface MonitorHoursRollupRepositoryCustom {
+
+        // Adds to the monitor's day, creating it if it does not exist yet.
+        void increment(String monitorCode, LocalDate workDate, long minutes, int shifts);
+}
@@ -0,0 +1,39 @@
+package com.sgl.backend.repository;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+public class MonitorHoursRollupRepositoryImpl implements MonitorHoursRollupRepositoryCustom {
+
+        private static final String ON_CONFLICT = """
+                        INSERT INTO monitor_hours_rollups (monitor_code, work_date, minutes, shifts)
+                        VALUES (:monitorCode, :workDate, :minutes, :shifts)
+                        ON CONFLICT (monitor_code, work_date)
+                        DO UPDATE SET minutes = monitor_hours_rollups.minutes + EXCLUDED.minutes,
+                                      shifts = monitor_hours_rollups.shifts + EXCLUDED.shifts
+                        """;
+
+        private static final String MERGE = """
+                        MERGE INTO monitor_hours_rollups r
+                        USING (VALUES (1)) AS s(x)
+                        ON r.monitor_code = :monitorCode AND r.work_date = :workDate
+                        WHEN MATCHED THEN UPDATE SET minutes = r.minutes + :minutes, shifts = r.shifts + :shifts
+                        WHEN NOT MATCHED THEN INSERT (monitor_code, work_date, minutes, shifts)
+                        VALUES (:monitorCode, :workDate, :minutes, :shifts)
+                        """;
+
+        @PersistenceContext
+        private EntityManager entityManager;
+
+        @Override
+        public void increment(String monitorCode, LocalDate workDate, long minutes, int shifts) {
+                RollupUpserts.execute(entityManager, ON_CONFLICT, MERGE, Map.of(
+                                "monitorCode", monitorCode,
+                                "workDate", workDate,
+                                "minutes", minutes,
+                                "shifts", shifts));
+        }
+}
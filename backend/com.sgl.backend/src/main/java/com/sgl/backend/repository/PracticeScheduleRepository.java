@@ -11,12 +11,20 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.sgl.backend.dto.PracticeResponse;
 import com.sgl.backend.entity.Laboratory;
 import com.sgl.backend.entity.PracticeSchedule;
 
 @Repository
 public interface PracticeScheduleRepository extends JpaRepository<PracticeSchedule, Long> {
-        Page<PracticeSchedule> findByTeacherCode(String teacherCode, Pageable pageable);
+        @Query(value = """
+                        SELECT new com.sgl.backend.dto.PracticeResponse(ps.id, ps.subject, ps.practiceType, ps.date,
+                               ps.startTime, ps.endTime, ps.durationMinutes, ps.studentCount, l.name)
+                        FROM PracticeSchedule ps JOIN ps.laboratory l
+                        WHERE ps.teacher.code = :teacherCode
+                        """,
+                        countQuery = "SELECT COUNT(ps) FROM PracticeSchedule ps WHERE ps.teacher.code = :teacherCode")
+        Page<PracticeResponse> findResponsesByTeacherCode(@Param("teacherCode") String teacherCode, Pageable pageable);
 
         boolean existsByLaboratoryAndDateAndStartTimeLessThanEqualAndStartTimeGreaterThanEqual(
                         Laboratory lab, LocalDate date, LocalTime end, LocalTime start);
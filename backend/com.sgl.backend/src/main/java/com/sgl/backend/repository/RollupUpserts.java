@@ -0,0 +1,27 @@
+package com.sgl.backend.repository;
+
+import java.util.Map;
+
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+// Rollup counters are bumped with a single upsert on the caller's connection
+// and transaction: INSERT ... ON CONFLICT DO UPDATE on PostgreSQL, MERGE on
+// other databases (H2 in tests). A writer racing on a new bucket waits on the
+// unique key instead of failing, and no second pooled connection is taken.
+final class RollupUpserts {
+
+        private RollupUpserts() {
+        }
+
+        static void execute(EntityManager entityManager, String onConflict, String merge, Map<String, ?> params) {
+                boolean postgres = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                                .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+                Query query = entityManager.createNativeQuery(postgres ? onConflict : merge);
+                params.forEach(query::setParameter);
+                query.executeUpdate();
+        }
+}
@@ -1,15 +1,37 @@
 package com.sgl.backend.repository;
 
+import java.util.List;
+import java.util.Optional;
+
 import org.springframework.data.domain.Page;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import com.sgl.backend.dto.UserResponse;
 import com.sgl.backend.entity.Role;
 import com.sgl.backend.entity.User;
 
 
+// User.role is lazy; lookups that go on to check the role fetch it in the same query.
 @Repository
 public interface UserRepository extends JpaRepository<User, String> {
+    @Override
+    @EntityGraph(attributePaths = "role")
+    Optional<User> findById(String code);
+
+    @Override
+    @EntityGraph(attributePaths = "role")
+    List<User> findAllById(Iterable<String> codes);
+
+    @Query("""
+            SELECT new com.sgl.backend.dto.UserResponse(u.code, u.name, u.email, u.document, r.id, r.name)
+            FROM User u JOIN u.role r
+            ORDER BY u.name, u.code
+            """)
+    List<UserResponse> findAllResponses();
+
     boolean existsByCodeAndRole_Name(String code, String roleName);
     Page<User> findByRole(Role role, org.springframework.data.domain.Pageable pageable);
 }
@@ -0,0 +1,101 @@
+package com.sgl.backend.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import com.itextpdf.text.BaseColor;
+import com.itextpdf.text.BadElementException;
+import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.Image;
+import com.itextpdf.text.Rectangle;
+import com.itextpdf.text.pdf.BaseFont;
+import com.itextpdf.text.pdf.PdfContentByte;
+import com.itextpdf.text.pdf.PdfImportedPage;
+import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.PdfWriter;
+import com.sgl.backend.exception.SglException;
+
+@Service
+public class AttendanceChartService {
+
+    private static final float WIDTH = 800;
+    private static final float HEIGHT = 400;
+    private static final float BAR_WIDTH = 45;
+    private static final float BAR_GAP = 15;
+    private static final BaseColor BAR_COLOR = new BaseColor(100, 149, 237);
+
+    private final Map<Integer, RenderedChart> cache = new ConcurrentHashMap<>();
+
+    public Image monthlyChart(PdfWriter writer, int year, int[] values) {
+        try {
+            PdfReader reader = new PdfReader(renderedChart(year, values));
+            PdfImportedPage page = writer.getImportedPage(reader, 1);
+            Image image = Image.getInstance(page);
+            image.scaleToFit(500, 300);
+            return image;
+        } catch (IOException | BadElementException e) {
+            throw new SglException("Error generating chart", e, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    byte[] renderedChart(int year, int[] values) {
+        return cache.compute(year, (key, cached) ->
+                cached != null && Arrays.equals(cached.values(), values)
+                        ? cached
+                        : new RenderedChart(values.clone(), render(year, values)))
+                .pdf();
+    }
+
+    private byte[] render(int year, int[] values) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Document document = new Document(new Rectangle(WIDTH, HEIGHT), 0, 0, 0, 0);
+
+        try {
+            PdfWriter writer = PdfWriter.getInstance(document, baos);
+            document.open();
+
+            PdfContentByte canvas = writer.getDirectContent();
+            BaseFont font = BaseFont.createFont(BaseFont.HELVETICA, BaseFont.WINANSI, BaseFont.NOT_EMBEDDED);
+
+            canvas.beginText();
+            canvas.setFontAndSize(font, 12);
+            canvas.showTextAligned(PdfContentByte.ALIGN_LEFT, "Asistencias por mes - " + year, 10, HEIGHT - 20, 0);
+            canvas.endText();
+
+            int max = Math.max(1, Arrays.stream(values).max().orElse(1));
+
+            for (int i = 0; i < 12; i++) {
+                float x = 40 + i * (BAR_WIDTH + BAR_GAP);
+                float barHeight = (float) values[i] / max * (HEIGHT - 80);
+
+                canvas.setColorFill(BAR_COLOR);
+                canvas.rectangle(x, 30, BAR_WIDTH, barHeight);
+                canvas.fill();
+
+                canvas.beginText();
+                canvas.setColorFill(BaseColor.BLACK);
+                canvas.setFontAndSize(font, 10);
+                canvas.showTextAligned(PdfContentByte.ALIGN_CENTER, String.valueOf(i + 1),
+                        x + BAR_WIDTH / 2, 12, 0);
+                canvas.showTextAligned(PdfContentByte.ALIGN_CENTER, String.valueOf(values[i]),
+                        x + BAR_WIDTH / 2, 36 + barHeight, 0);
+                canvas.endText();
+            }
+
+            document.close();
+            return baos.toByteArray();
+        } catch (DocumentException | IOException e) {
+            throw new SglException("Error generating chart", e, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private record RenderedChart(int[] values, byte[] pdf) {
+    }
+}
@@ -0,0 +1,207 @@
+package com.sgl.backend.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.sgl.backend.dto.BulkAttendanceRequest;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+// Append-only log of scans accepted while attendance.journal.enabled is on.
+// Each line is "code<TAB>timestamp"; scans.offset records how far the
+// background writer has stored them in the database.
+@Slf4j
+@Component
+public class AttendanceJournal {
+
+    private static final String JOURNAL_FILE = "scans.log";
+    private static final String OFFSET_FILE = "scans.offset";
+    private static final String REJECTED_FILE = "scans.rejected";
+
+    private final boolean enabled;
+    private final Path dir;
+
+    // a lock rather than synchronized: writers fsync while holding it, which
+    // would pin the carrier thread of a virtual thread
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private FileChannel channel;
+    private long offset;
+
+    public AttendanceJournal(@Value("${attendance.journal.enabled:false}") boolean enabled,
+            @Value("${attendance.journal.dir:data/attendance-journal}") Path dir) {
+        this.enabled = enabled;
+        this.dir = dir;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        lock.lock();
+        try {
+            if (!enabled) {
+                return;
+            }
+            Files.createDirectories(dir);
+            channel = FileChannel.open(dir.resolve(JOURNAL_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+            long validEnd = lastLineEnd();
+            if (validEnd < channel.size()) {
+                log.warn("Discarding {} bytes of a partially written scan", channel.size() - validEnd);
+                channel.truncate(validEnd);
+            }
+            Path offsetFile = dir.resolve(OFFSET_FILE);
+            offset = Files.exists(offsetFile) ? Long.parseLong(Files.readString(offsetFile).trim()) : 0;
+            if (offset > validEnd) {
+                offset = 0;
+            }
+            log.info("Attendance journal opened with {} pending bytes", validEnd - offset);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void append(String code, LocalDateTime timestamp) {
+        ByteBuffer line = StandardCharsets.UTF_8.encode(code + "\t" + timestamp + "\n");
+        lock.lock();
+        try {
+            channel.position(channel.size());
+            while (line.hasRemaining()) {
+                channel.write(line);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not journal scan for " + code, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Batch readPending(int maxScans) throws IOException {
+        lock.lock();
+        try {
+            long size = channel.size();
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(size - offset, 64 * 1024));
+            channel.read(buffer, offset);
+            buffer.flip();
+
+            List<BulkAttendanceRequest.Scan> scans = new ArrayList<>();
+            long end = offset;
+            int lineStart = 0;
+            for (int i = 0; i < buffer.limit() && scans.size() < maxScans; i++) {
+                if (buffer.get(i) == '\n') {
+                    String line = StandardCharsets.UTF_8.decode(buffer.slice(lineStart, i - lineStart)).toString();
+                    String[] fields = line.split("\t");
+                    BulkAttendanceRequest.Scan scan = new BulkAttendanceRequest.Scan();
+                    scan.setCode(fields[0]);
+                    scan.setTimestamp(LocalDateTime.parse(fields[1]));
+                    scans.add(scan);
+                    lineStart = i + 1;
+                    end = offset + lineStart;
+                }
+            }
+            return new Batch(scans, offset, end);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void commit(long newOffset) throws IOException {
+        lock.lock();
+        try {
+            if (newOffset == channel.size()) {
+                // fully drained: record the reset before truncating so a crash in
+                // between only replays scans the database will reject as duplicates
+                writeOffset(0);
+                channel.truncate(0);
+                offset = 0;
+            } else {
+                writeOffset(newOffset);
+                offset = newOffset;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Bytes journaled but not yet stored in the database.
+    public long pendingBytes() {
+        lock.lock();
+        try {
+            return channel == null ? 0 : channel.size() - offset;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void reject(BulkAttendanceRequest.Scan scan, String reason) throws IOException {
+        lock.lock();
+        try {
+            Files.writeString(dir.resolve(REJECTED_FILE),
+                    scan.getCode() + "\t" + scan.getTimestamp() + "\t" + reason + "\n",
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void writeOffset(long value) throws IOException {
+        Path tmp = dir.resolve(OFFSET_FILE + ".tmp");
+        Files.writeString(tmp, Long.toString(value), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.SYNC);
+        Files.move(tmp, dir.resolve(OFFSET_FILE), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private long lastLineEnd() throws IOException {
+        long position = channel.size();
+        ByteBuffer single = ByteBuffer.allocate(1);
+        while (position > 0) {
+            single.clear();
+            channel.read(single, position - 1);
+            if (single.get(0) == '\n') {
+                return position;
+            }
+            position--;
+        }
+        return 0;
+    }
+
+    public record Batch(List<BulkAttendanceRequest.Scan> scans, long startOffset, long endOffset) {
+    }
+}
@@ -0,0 +1,140 @@
+package com.sgl.backend.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import com.sgl.backend.dto.BulkAttendanceRequest;
+import com.sgl.backend.dto.BulkAttendanceResult;
+import com.sgl.backend.dto.BulkAttendanceResult.ScanStatus;
+import com.sgl.backend.service.AttendanceJournal.Batch;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AttendanceJournalWriter {
+
+    private final AttendanceJournal journal;
+    private final AttendanceService attendanceService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${attendance.journal.batch-size:200}")
+    private int batchSize = 200;
+
+    @Value("${attendance.journal.max-attempts:3}")
+    private int maxAttempts = 3;
+
+    // failed attempts of the batch starting at failedOffset; the scheduler
+    // never runs drain() concurrently
+    private long failedOffset = -1;
+    private int failedAttempts;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("attendance.journal.lag", journal, AttendanceJournal::pendingBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    // Replays from the last committed offset, so scans journaled before a
+    // restart are stored on the first run; already stored ones come back as
+    // duplicates and are skipped.
+    @Scheduled(fixedDelayString = "${attendance.journal.drain-interval:PT1S}")
+    public int drain() {
+        if (!journal.isEnabled()) {
+            return 0;
+        }
+        int stored = 0;
+        try {
+            while (true) {
+                Batch batch = journal.readPending(batchSize);
+                if (batch.scans().isEmpty()) {
+                    return stored;
+                }
+
+                List<BulkAttendanceResult> results;
+                try {
+                    results = attendanceService.registerAttendances(batch.scans());
+                } catch (RuntimeException e) {
+                    if (isTransient(e) || !attemptsExhausted(batch)) {
+                        throw e;
+                    }
+                    log.warn("Journaled batch at offset {} failed {} times, storing its scans one by one: {}",
+                            batch.startOffset(), failedAttempts, e.getMessage());
+                    results = registerOneByOne(batch.scans());
+                }
+                if (results.stream().anyMatch(result -> result.getStatus() == ScanStatus.DEFERRED)) {
+                    // OPAC is down: keep the batch pending, the scans stored meanwhile
+                    // come back as duplicates on the next run
+                    log.warn("Attendance journal drain paused until OPAC is reachable again");
+                    return stored;
+                }
+                for (int i = 0; i < results.size(); i++) {
+                    BulkAttendanceResult result = results.get(i);
+                    if (result.getStatus() == ScanStatus.REGISTERED) {
+                        stored++;
+                    } else if (result.getStatus() == ScanStatus.REJECTED) {
+                        log.warn("Journaled scan for {} rejected: {}", result.getCode(), result.getMessage());
+                        journal.reject(batch.scans().get(i), result.getMessage());
+                    }
+                }
+                journal.commit(batch.endOffset());
+                failedOffset = -1;
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Attendance journal drain stopped, will retry: {}", e.getMessage());
+            return stored;
+        }
+    }
+
+    private boolean attemptsExhausted(Batch batch) {
+        if (batch.startOffset() != failedOffset) {
+            failedOffset = batch.startOffset();
+            failedAttempts = 0;
+        }
+        return ++failedAttempts >= maxAttempts;
+    }
+
+    // A batch that keeps failing is stored one scan at a time, so a single bad
+    // scan is rejected instead of blocking every scan journaled after it.
+    private List<BulkAttendanceResult> registerOneByOne(List<BulkAttendanceRequest.Scan> scans) {
+        List<BulkAttendanceResult> results = new ArrayList<>(scans.size());
+        for (BulkAttendanceRequest.Scan scan : scans) {
+            try {
+                results.addAll(attendanceService.registerAttendances(List.of(scan)));
+            } catch (RuntimeException e) {
+                if (isTransient(e)) {
+                    throw e;
+                }
+                results.add(BulkAttendanceResult.builder()
+                        .code(scan.getCode())
+                        .timestamp(scan.getTimestamp())
+                        .status(ScanStatus.REJECTED)
+                        .message(e.getMessage())
+                        .build());
+            }
+        }
+        return results;
+    }
+
+    // The database is unreachable or busy: says nothing about the scans, so
+    // these failures are retried forever and never lead to a rejection.
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+}
@@ -0,0 +1,168 @@
+package com.sgl.backend.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// Keeps the monthly partitions of attendances (PostgreSQL only, see
+// db/vendor/postgresql/V5): creates the coming months ahead of time and, when
+// attendance.retention.months is set, keeps that many months (the current one
+// included) and exports older ones to gzipped CSV files before dropping them.
+// Rollups are kept, so yearly charts still cover archived months.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AttendancePartitionService {
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("attendances_y(\\d{4})m(\\d{2})");
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("'y'yyyy'm'MM");
+
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${attendance.partitions.months-ahead:3}")
+    private int monthsAhead = 3;
+
+    @Value("${attendance.retention.months:0}")
+    private int retentionMonths;
+
+    @Value("${attendance.archive.dir:data/attendance-archive}")
+    private Path archiveDir = Path.of("data/attendance-archive");
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${attendance.partitions.cron:0 30 0 * * *}")
+    public void maintain() {
+        if (!isPartitioned()) {
+            return;
+        }
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            createPartition(current.plusMonths(i));
+        }
+        if (retentionMonths > 0) {
+            archiveBefore(current.minusMonths(retentionMonths - 1L));
+        }
+    }
+
+    private boolean isPartitioned() {
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(product)) {
+            return false;
+        }
+        Integer partitioned = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_partitioned_table WHERE partrelid = 'attendances'::regclass",
+                Integer.class);
+        return partitioned != null && partitioned > 0;
+    }
+
+    private void createPartition(YearMonth month) {
+        try {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month)
+                    + " PARTITION OF attendances FOR VALUES FROM ('" + month.atDay(1)
+                    + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+        } catch (DataAccessException e) {
+            // typically rows for that month already sit in attendances_default
+            log.error("Could not create attendance partition for {}", month, e);
+        }
+    }
+
+    private void archiveBefore(YearMonth firstKept) {
+        List<String> partitions = jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = 'attendances'::regclass
+                ORDER BY c.relname
+                """, String.class);
+
+        for (String partition : partitions) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (month.isBefore(firstKept)) {
+                try {
+                    Path file = export(partition, month);
+                    jdbcTemplate.execute("DROP TABLE " + partition);
+                    log.info("Archived attendances of {} to {}", month, file);
+                } catch (IOException | DataAccessException e) {
+                    log.error("Could not archive attendance partition {}; it is kept", partition, e);
+                }
+            }
+        }
+    }
+
+    private Path export(String partition, YearMonth month) throws IOException {
+        Files.createDirectories(archiveDir);
+        Path target = archiveDir.resolve(String.format("attendances_%d_%02d.csv.gz",
+                month.getYear(), month.getMonthValue()));
+        Path tmp = archiveDir.resolve(target.getFileName() + ".tmp");
+
+        CSVFormat format = CSVFormat.DEFAULT.builder()
+                .setHeader("id", "user_code", "timestamp", "attendance_date")
+                .build();
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(tmp)), StandardCharsets.UTF_8));
+                CSVPrinter csv = new CSVPrinter(writer, format)) {
+            // The PostgreSQL driver only streams with a fetch size and autocommit
+            // off; otherwise it buffers the whole partition before the first row.
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            readOnly.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(
+                        "SELECT id, user_code, timestamp, attendance_date FROM " + partition
+                                + " ORDER BY timestamp, id");
+                ps.setFetchSize(EXPORT_FETCH_SIZE);
+                return ps;
+            }, (RowCallbackHandler) rs -> {
+                try {
+                    csv.printRecord(rs.getLong(1), rs.getString(2),
+                            rs.getTimestamp(3).toLocalDateTime(), rs.getDate(4).toLocalDate());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return target;
+    }
+
+    private static String partitionName(YearMonth month) {
+        return "attendances_" + month.atDay(1).format(PARTITION_SUFFIX);
+    }
+}
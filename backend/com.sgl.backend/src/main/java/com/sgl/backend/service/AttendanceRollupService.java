@@ -0,0 +1,100 @@
+package com.sgl.backend.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+
+import com.sgl.backend.entity.Attendance;
+import com.sgl.backend.entity.AttendanceRollup;
+import com.sgl.backend.entity.AttendanceRollup.Granularity;
+import com.sgl.backend.repository.AttendanceRepository;
+import com.sgl.backend.repository.AttendanceRepository.DailyRoleCount;
+import com.sgl.backend.repository.AttendanceRollupRepository;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class AttendanceRollupService {
+
+    private final AttendanceRollupRepository rollupRepo;
+    private final AttendanceRepository attendanceRepo;
+
+    public void recordAttendance(LocalDateTime timestamp, String roleName) {
+        LocalDate day = timestamp.toLocalDate();
+        rollupRepo.increment(Granularity.DAY, day, roleName, 1);
+        rollupRepo.increment(Granularity.MONTH, day.withDayOfMonth(1), roleName, 1);
+    }
+
+    public void recordAttendances(Collection<Attendance> attendances) {
+        Map<LocalDate, Map<String, Long>> perDay = attendances.stream()
+                .collect(Collectors.groupingBy(a -> a.getTimestamp().toLocalDate(), TreeMap::new,
+                        Collectors.groupingBy(a -> a.getUser().getRole().getName(), TreeMap::new,
+                                Collectors.counting())));
+        Map<LocalDate, Map<String, Long>> perMonth = new TreeMap<>();
+
+        perDay.forEach((day, roles) -> roles.forEach((roleName, total) -> {
+            rollupRepo.increment(Granularity.DAY, day, roleName, total);
+            perMonth.computeIfAbsent(day.withDayOfMonth(1), month -> new TreeMap<>())
+                    .merge(roleName, total, Long::sum);
+        }));
+        perMonth.forEach((month, roles) -> roles.forEach((roleName, total) ->
+                rollupRepo.increment(Granularity.MONTH, month, roleName, total)));
+    }
+
+    public int[] getMonthlyTotals(int year) {
+        int[] counts = new int[12];
+        List<AttendanceRollup> rows = rollupRepo.findByGranularityAndBucketDateBetween(
+                Granularity.MONTH, LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 1));
+
+        for (AttendanceRollup row : rows) {
+            counts[row.getBucketDate().getMonthValue() - 1] += row.getTotal().intValue();
+        }
+        return counts;
+    }
+
+    // Only months still present in attendances are rebuilt; rollups of
+    // months archived by AttendancePartitionService are kept.
+    public int rebuild() {
+        LocalDate earliest = attendanceRepo.findEarliestAttendanceDate();
+        if (earliest == null) {
+            return 0;
+        }
+        rollupRepo.deleteFromBucketDate(earliest.withDayOfMonth(1));
+
+        List<AttendanceRollup> rollups = new ArrayList<>();
+        Map<String, AttendanceRollup> monthly = new TreeMap<>();
+
+        for (DailyRoleCount row : attendanceRepo.countPerDayAndRole()) {
+            rollups.add(AttendanceRollup.builder()
+                    .granularity(Granularity.DAY)
+                    .bucketDate(row.getDate())
+                    .roleName(row.getRoleName())
+                    .total(row.getTotal())
+                    .build());
+
+            LocalDate month = row.getDate().withDayOfMonth(1);
+            AttendanceRollup monthRow = monthly.computeIfAbsent(month + "|" + row.getRoleName(),
+                    key -> AttendanceRollup.builder()
+                            .granularity(Granularity.MONTH)
+                            .bucketDate(month)
+                            .roleName(row.getRoleName())
+                            .total(0L)
+                            .build());
+            monthRow.setTotal(monthRow.getTotal() + row.getTotal());
+        }
+
+        rollups.addAll(monthly.values());
+        rollupRepo.saveAll(rollups);
+        return rollups.size();
+    }
+}
@@ -9,138 +9,309 @@ import com.itextpdf.text.Document;
 import com.itextpdf.text.PageSize;
 import com.itextpdf.text.Paragraph;
 import com.itextpdf.text.FontFactory;
-import com.itextpdf.text.Image;
 import com.itextpdf.text.Chunk;
 import com.itextpdf.text.pdf.PdfPTable;
 import com.itextpdf.text.pdf.PdfWriter;
 
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.StringWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 
-import java.awt.image.BufferedImage;
-import java.awt.Graphics2D;
-import java.awt.Color;
-import javax.imageio.ImageIO;
-import java.util.Arrays;
-
+import com.sgl.backend.dto.AttendanceCursor;
+import com.sgl.backend.dto.AttendancePageResponse;
 import com.sgl.backend.dto.AttendanceReportDTO;
 import com.sgl.backend.dto.AttendanceSummaryDTO;
+import com.sgl.backend.dto.BulkAttendanceRequest;
+import com.sgl.backend.dto.BulkAttendanceResult;
+import com.sgl.backend.dto.BulkAttendanceResult.ScanStatus;
 import com.sgl.backend.dto.OpacUserInfo;
 import com.sgl.backend.repository.AttendanceRepository;
+import com.sgl.backend.repository.AttendanceRepository.PeriodSummary;
+import com.sgl.backend.repository.AttendanceRepository.UserAttendanceDate;
+import com.sgl.backend.repository.AttendanceRepository.UserMonthlyCount;
 import com.sgl.backend.repository.RoleRepository;
 import com.sgl.backend.repository.UserRepository;
+import com.sgl.backend.service.ReportCache.Report;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class AttendanceService {
 
+    private static final int PDF_CHUNK_ROWS = 200;
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final AttendanceRepository attendanceRepository;
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final OpacService opacService;
+    private final AttendanceRollupService rollupService;
+    private final AttendanceChartService chartService;
+    private final DailyAttendanceIndex attendanceIndex;
+    private final AttendanceJournal attendanceJournal;
+    private final ReportCache reportCache;
 
-    public Attendance registerAttendance(String code) {
-        User user = userRepository.findById(code).orElse(null);
-        if (user == null) {
-            OpacUserInfo opacInfo = opacService.fetchUserInfo(code);
-            Role role = roleRepository.findByName("ESTUDIANTE")
-                    .orElseThrow(() -> new SglException("Default role ESTUDIANTE not found"));
-            user = User.builder()
-                    .code(opacInfo.getCode())
-                    .name(opacInfo.getName())
-                    .email(opacInfo.getEmail())
-                    .document(opacInfo.getDocument())
-                    .role(role)
-                    .build();
-            user = userRepository.save(user);
-        }
+    // Offline scanners may upload late, but not back-fill arbitrary history.
+    @Value("${attendance.bulk.max-backdate:P7D}")
+    private Duration maxBackdate = Duration.ofDays(7);
 
-        LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
-        LocalDateTime endOfDay = LocalDate.now().atTime(LocalTime.MAX);
-        if (attendanceRepository.findByUserAndTimestampBetween(user, startOfDay, endOfDay).isPresent()) {
+    @Transactional
+    public Attendance registerAttendance(String code) {
+        LocalDateTime now = LocalDateTime.now();
+        if (attendanceIndex.contains(code, now.toLocalDate())) {
             throw new SglException("Attendance already registered for user " + code + " today");
         }
 
+        User user = userRepository.findById(code).orElseGet(() -> createUserFromOpac(code));
+
         Attendance attendance = Attendance.builder()
                 .user(user)
-                .timestamp(LocalDateTime.now())
+                .timestamp(now)
+                .attendanceDate(now.toLocalDate())
+                .build();
+        Attendance saved;
+        try {
+            saved = attendanceRepository.saveAndFlush(attendance);
+        } catch (DataIntegrityViolationException e) {
+            attendanceIndex.markAttended(code, now.toLocalDate());
+            throw new SglException("Attendance already registered for user " + code + " today");
+        }
+        rollupService.recordAttendance(attendance.getTimestamp(), user.getRole().getName());
+        attendanceIndex.markAttended(code, now.toLocalDate());
+        reportCache.invalidate(ReportCache.ATTENDANCE_REPORTS, now.toLocalDate());
+        return saved;
+    }
+
+    // Journal mode: no transaction and no query, so the scanner is answered
+    // even while the database is stalled. AttendanceJournalWriter stores the
+    // scan later; the returned attendance has no id yet.
+    public Attendance journalAttendance(String code) {
+        LocalDateTime now = LocalDateTime.now();
+        if (attendanceIndex.contains(code, now.toLocalDate())) {
+            throw new SglException("Attendance already registered for user " + code + " today");
+        }
+
+        attendanceJournal.append(code, now);
+        attendanceIndex.markAttended(code, now.toLocalDate());
+        return Attendance.builder()
+                .user(User.builder().code(code).build())
+                .timestamp(now)
+                .attendanceDate(now.toLocalDate())
                 .build();
-        return attendanceRepository.save(attendance);
     }
 
-    public List<Attendance> getAttendances(LocalDateTime start, LocalDateTime end, String userCode) {
-        if (userCode != null && !userCode.isEmpty()) {
-            return attendanceRepository.findByUserCode(userCode);
+    @Transactional
+    public List<BulkAttendanceResult> registerAttendances(List<BulkAttendanceRequest.Scan> scans) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime oldest = now.minus(maxBackdate);
+        Set<String> codes = scans.stream()
+                .map(BulkAttendanceRequest.Scan::getCode)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        Map<String, User> users = userRepository.findAllById(codes).stream()
+                .collect(Collectors.toMap(User::getCode, Function.identity()));
+        Map<String, SglException> lookupFailures = new HashMap<>();
+        for (String code : codes) {
+            if (!users.containsKey(code)) {
+                try {
+                    users.put(code, createUserFromOpac(code));
+                } catch (SglException e) {
+                    lookupFailures.put(code, e);
+                }
+            }
+        }
+
+        List<LocalDate> days = scans.stream()
+                .map(scan -> scan.getTimestamp() != null ? scan.getTimestamp() : now)
+                .filter(timestamp -> !timestamp.isAfter(now) && !timestamp.isBefore(oldest))
+                .map(LocalDateTime::toLocalDate)
+                .toList();
+        Map<String, Set<LocalDate>> attendedDays = new HashMap<>();
+        if (!users.isEmpty() && !days.isEmpty()) {
+            LocalDate firstDay = Collections.min(days);
+            LocalDate lastDay = Collections.max(days);
+            for (UserAttendanceDate row : attendanceRepository.findAttendanceDatesByUsersAndPeriod(
+                    users.keySet(), firstDay.atStartOfDay(), lastDay.plusDays(1).atStartOfDay())) {
+                attendedDays.computeIfAbsent(row.getUserCode(), code -> new HashSet<>()).add(row.getDate());
+            }
+        }
+
+        List<BulkAttendanceResult> results = new ArrayList<>(scans.size());
+        List<Attendance> attendances = new ArrayList<>();
+        for (BulkAttendanceRequest.Scan scan : scans) {
+            String code = scan.getCode();
+            LocalDateTime timestamp = scan.getTimestamp() != null ? scan.getTimestamp() : now;
+            BulkAttendanceResult.BulkAttendanceResultBuilder result = BulkAttendanceResult.builder()
+                    .code(code)
+                    .timestamp(timestamp);
+
+            SglException lookupFailure = lookupFailures.get(code);
+            if (lookupFailure != null) {
+                result.status(lookupFailure.getStatus() == HttpStatus.SERVICE_UNAVAILABLE
+                        ? ScanStatus.DEFERRED
+                        : ScanStatus.REJECTED)
+                        .message(lookupFailure.getMessage());
+            } else if (timestamp.isAfter(now)) {
+                result.status(ScanStatus.REJECTED).message("Timestamp is in the future");
+            } else if (timestamp.isBefore(oldest)) {
+                result.status(ScanStatus.REJECTED).message("Timestamp too old");
+            } else if (!attendedDays.computeIfAbsent(code, c -> new HashSet<>()).add(timestamp.toLocalDate())) {
+                result.status(ScanStatus.DUPLICATE)
+                        .message("Attendance already registered for user " + code + " on " + timestamp.toLocalDate());
+            } else {
+                attendances.add(Attendance.builder()
+                        .user(users.get(code))
+                        .timestamp(timestamp)
+                        .attendanceDate(timestamp.toLocalDate())
+                        .build());
+                result.status(ScanStatus.REGISTERED);
+            }
+            results.add(result.build());
+        }
+
+        if (!attendances.isEmpty()) {
+            // users created from OPAC must reach the database before the JDBC batch references them
+            userRepository.flush();
+            try {
+                attendanceRepository.insertAll(attendances);
+            } catch (DataIntegrityViolationException e) {
+                throw new SglException("Some scans in the batch were registered concurrently, retry the batch",
+                        e, HttpStatus.CONFLICT);
+            }
+            rollupService.recordAttendances(attendances);
+            attendances.forEach(a -> attendanceIndex.markAttended(a.getUser().getCode(), a.getTimestamp().toLocalDate()));
+            attendances.stream().map(Attendance::getAttendanceDate).distinct()
+                    .forEach(day -> reportCache.invalidate(ReportCache.ATTENDANCE_REPORTS, day));
         }
-        if (start != null && end != null) {
-            return attendanceRepository.findByTimestampBetween(start, end);
+        return results;
+    }
+
+    private User createUserFromOpac(String code) {
+        OpacUserInfo opacInfo = opacService.fetchUserInfo(code);
+        Role role = roleRepository.findByName("ESTUDIANTE")
+                .orElseThrow(() -> new SglException("Default role ESTUDIANTE not found"));
+        User user = User.builder()
+                .code(opacInfo.getCode())
+                .name(opacInfo.getName())
+                .email(opacInfo.getEmail())
+                .document(opacInfo.getDocument())
+                .role(role)
+                .build();
+        return userRepository.save(user);
+    }
+
+    public AttendancePageResponse getAttendances(LocalDateTime start, LocalDateTime end, String userCode,
+            int size, String cursor) {
+        if (size < 1) {
+            throw new SglException("Page size must be positive");
         }
-        return attendanceRepository.findAll();
+        int limit = Math.min(size, MAX_PAGE_SIZE);
+        AttendanceCursor after = cursor == null || cursor.isBlank() ? null : AttendanceCursor.decode(cursor);
+        String code = userCode == null || userCode.isEmpty() ? null : userCode;
+
+        List<Attendance> rows = attendanceRepository.findPage(code, start, end, after, limit + 1);
+        boolean hasMore = rows.size() > limit;
+        List<Attendance> items = hasMore ? rows.subList(0, limit) : rows;
+
+        return AttendancePageResponse.builder()
+                .items(items)
+                .nextCursor(hasMore ? AttendanceCursor.after(items.get(limit - 1)).encode() : null)
+                .build();
     }
 
     public Page<AttendanceReportDTO> getMonthlyReport(int year, int month, Pageable pageable) {
-        Page<Attendance> page = attendanceRepository.findByYearAndMonth(year, month, pageable);
-
-        return page.map(att -> {
-            String code = att.getUser().getCode();
-            long count = attendanceRepository.countByUserAndYearMonth(code, year, month);
-
-            List<LocalDate> dates = attendanceRepository.findByUserCode(code).stream()
-                    .filter(a -> a.getTimestamp().getYear() == year && a.getTimestamp().getMonthValue() == month)
-                    .map(a -> a.getTimestamp().toLocalDate())
-                    .distinct()
-                    .sorted()
-                    .toList();
-
-            return AttendanceReportDTO.builder()
-                    .userCode(code)
-                    .userName(att.getUser().getName())
-                    .userRole(att.getUser().getRole().getName())
-                    .totalAttendances((int) count)
-                    .attendanceDates(dates)
-                    .build();
-        });
+        YearMonth period = YearMonth.of(year, month);
+        return reportCache.get(Report.ATTENDANCE_MONTHLY, period.atDay(1), period.atEndOfMonth(), pageable,
+                () -> loadMonthlyReport(year, month, pageable));
     }
 
-    public AttendanceSummaryDTO getMonthlySummary(int year, int month) {
-        Page<Attendance> page = attendanceRepository.findByYearAndMonth(year, month, Pageable.unpaged());
+    private Page<AttendanceReportDTO> loadMonthlyReport(int year, int month, Pageable pageable) {
+        LocalDateTime periodStart = monthStart(year, month);
+        LocalDateTime periodEnd = periodStart.plusMonths(1);
+        Page<UserMonthlyCount> page = attendanceRepository.countPerUserByPeriod(periodStart, periodEnd, pageable);
+
+        List<UserAttendanceDate> rows;
         if (page.isEmpty()) {
-            return AttendanceSummaryDTO.builder().totalUsers(0).totalAttendances(0).build();
+            rows = List.of();
+        } else if (pageable.isPaged()) {
+            List<String> codes = page.getContent().stream().map(UserMonthlyCount::getUserCode).toList();
+            rows = attendanceRepository.findAttendanceDatesByUsersAndPeriod(codes, periodStart, periodEnd);
+        } else {
+            rows = attendanceRepository.findAttendanceDatesByPeriod(periodStart, periodEnd);
         }
 
-        Set<String> users = page.stream().map(a -> a.getUser().getCode()).collect(Collectors.toSet());
+        Map<String, List<LocalDate>> datesByUser = rows.stream()
+                .collect(Collectors.groupingBy(UserAttendanceDate::getUserCode,
+                        Collectors.mapping(UserAttendanceDate::getDate, Collectors.toList())));
+
+        return page.map(row -> AttendanceReportDTO.builder()
+                .userCode(row.getUserCode())
+                .userName(row.getUserName())
+                .userRole(row.getUserRole())
+                .totalAttendances((int) row.getTotalAttendances())
+                .attendanceDates(datesByUser.getOrDefault(row.getUserCode(), List.of()).stream()
+                        .sorted()
+                        .toList())
+                .build());
+    }
+
+    public AttendanceSummaryDTO getMonthlySummary(int year, int month) {
+        YearMonth period = YearMonth.of(year, month);
+        return reportCache.get(Report.ATTENDANCE_SUMMARY, period.atDay(1), period.atEndOfMonth(), null,
+                () -> loadMonthlySummary(year, month));
+    }
+
+    private AttendanceSummaryDTO loadMonthlySummary(int year, int month) {
+        LocalDateTime periodStart = monthStart(year, month);
+        PeriodSummary summary = attendanceRepository.summarizePeriod(periodStart, periodStart.plusMonths(1));
 
         return AttendanceSummaryDTO.builder()
-                .totalUsers(users.size())
-                .totalAttendances(page.getContent().size())
-                .firstAttendance(page.getContent().get(0).getTimestamp().toLocalDate())
-                .lastAttendance(page.getContent().get(page.getContent().size() - 1).getTimestamp().toLocalDate())
+                .totalUsers((int) summary.getTotalUsers())
+                .totalAttendances((int) summary.getTotalAttendances())
+                .firstAttendance(summary.getFirstAttendance())
+                .lastAttendance(summary.getLastAttendance())
                 .build();
     }
 
-    public byte[] generateAttendancePdf(List<AttendanceReportDTO> data, int year, int month) {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    @Transactional
+    public void writeAttendancePdf(int year, int month, OutputStream out) {
+        LocalDateTime periodStart = monthStart(year, month);
         Document document = new Document(PageSize.A4);
 
-        try {
-            PdfWriter.getInstance(document, baos);
+        try (Stream<UserMonthlyCount> rows = attendanceRepository.streamPerUserByPeriod(
+                periodStart, periodStart.plusMonths(1))) {
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            writer.setCloseStream(false);
             document.open();
 
             document.add(new Paragraph("REPORTE DE ASISTENCIA AL LABORATORIO",
@@ -148,11 +319,7 @@ public class AttendanceService {
             document.add(new Paragraph("Período: " + String.format("%02d/%d", month, year)));
             document.add(Chunk.NEWLINE);
 
-            int[] monthlyCounts = getAttendancesPerMonth(year);
-            byte[] chartBytes = generateBarChart(monthlyCounts, year);
-            Image chart = Image.getInstance(chartBytes);
-            chart.scaleToFit(500, 300);
-            document.add(chart);
+            document.add(chartService.monthlyChart(writer, year, getAttendancesPerMonth(year)));
 
             document.add(Chunk.NEWLINE);
             document.add(new Paragraph("Detalle del mes:"));
@@ -160,41 +327,56 @@ public class AttendanceService {
 
             PdfPTable table = new PdfPTable(4);
             table.setWidthPercentage(100);
+            table.setHeaderRows(1);
+            table.setComplete(false);
             table.addCell("Código");
             table.addCell("Nombre");
             table.addCell("Rol");
             table.addCell("Asistencias");
 
-            for (AttendanceReportDTO d : data) {
-                table.addCell(d.getUserCode());
-                table.addCell(d.getUserName());
-                table.addCell(d.getUserRole());
-                table.addCell(String.valueOf(d.getTotalAttendances()));
+            int written = 0;
+            Iterator<UserMonthlyCount> it = rows.iterator();
+            while (it.hasNext()) {
+                UserMonthlyCount row = it.next();
+                table.addCell(row.getUserCode());
+                table.addCell(row.getUserName());
+                table.addCell(row.getUserRole());
+                table.addCell(String.valueOf(row.getTotalAttendances()));
+
+                if (++written % PDF_CHUNK_ROWS == 0) {
+                    document.add(table);
+                }
             }
 
+            table.setComplete(true);
             document.add(table);
             document.close();
-            return baos.toByteArray();
         } catch (Exception e) {
             throw new SglException("Error generating PDF", HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
-    public byte[] generateAttendanceCsv(List<AttendanceReportDTO> data, int year) {
-        StringWriter writer = new StringWriter();
+    @Transactional
+    public void writeAttendanceCsv(int year, int month, OutputStream out) {
+        LocalDateTime periodStart = monthStart(year, month);
         CSVFormat format = CSVFormat.DEFAULT
                 .builder()
                 .setHeader("Código", "Nombre", "Rol", "Total Asistencias")
                 .build();
 
-        try (CSVPrinter csv = new CSVPrinter(writer, format)) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try (Stream<UserMonthlyCount> rows = attendanceRepository.streamPerUserByPeriod(
+                periodStart, periodStart.plusMonths(1))) {
+            CSVPrinter csv = new CSVPrinter(writer, format);
 
-            for (AttendanceReportDTO d : data) {
+            Iterator<UserMonthlyCount> it = rows.iterator();
+            while (it.hasNext()) {
+                UserMonthlyCount row = it.next();
                 csv.printRecord(
-                        d.getUserCode(),
-                        d.getUserName(),
-                        d.getUserRole(),
-                        d.getTotalAttendances());
+                        row.getUserCode(),
+                        row.getUserName(),
+                        row.getUserRole(),
+                        row.getTotalAttendances());
             }
 
             csv.println();
@@ -206,55 +388,20 @@ public class AttendanceService {
             for (int i = 0; i < 12; i++) {
                 csv.printRecord(i + 1, monthlyCounts[i]);
             }
+            csv.flush();
 
         } catch (IOException e) {
             throw new SglException("Error generating CSV", HttpStatus.INTERNAL_SERVER_ERROR);
         }
-
-        return writer.toString().getBytes(StandardCharsets.UTF_8);
     }
 
     public int[] getAttendancesPerMonth(int year) {
-        int[] counts = new int[12];
-
-        for (int month = 1; month <= 12; month++) {
-            counts[month - 1] = attendanceRepository.countByYearAndMonth(year, month);
-        }
-
-        return counts;
+        int[] totals = reportCache.get(Report.ATTENDANCE_TOTALS, LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31),
+                null, () -> rollupService.getMonthlyTotals(year));
+        return totals.clone();
     }
 
-    private byte[] generateBarChart(int[] values, int year) throws IOException {
-        int width = 800;
-        int height = 400;
-
-        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-        Graphics2D g = image.createGraphics();
-
-        g.setColor(Color.WHITE);
-        g.fillRect(0, 0, width, height);
-
-        g.setColor(Color.BLACK);
-        g.drawString("Asistencias por mes - " + year, 10, 20);
-
-        int max = Arrays.stream(values).max().orElse(1);
-        int barWidth = width / 14;
-
-        for (int i = 0; i < 12; i++) {
-            int barHeight = (int) ((double) values[i] / max * (height - 60));
-
-            g.setColor(new Color(100, 149, 237)); 
-            g.fillRect(40 + i * (barWidth + 15), height - barHeight - 30, barWidth, barHeight);
-
-            g.setColor(Color.BLACK);
-            g.drawString(String.valueOf(i + 1), 45 + i * (barWidth + 15), height - 10);
-            g.drawString(String.valueOf(values[i]), 45 + i * (barWidth + 15), height - barHeight - 40);
-        }
-
-        g.dispose();
-
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        ImageIO.write(image, "png", baos);
-        return baos.toByteArray();
+    private static LocalDateTime monthStart(int year, int month) {
+        return YearMonth.of(year, month).atDay(1).atStartOfDay();
     }
-}
\ No newline at end of file
+}
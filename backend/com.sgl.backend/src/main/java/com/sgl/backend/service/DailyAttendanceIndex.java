@@ -0,0 +1,76 @@
+package com.sgl.backend.service;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.sgl.backend.repository.AttendanceRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// Codes of users that already attended today. The unique key on
+// (user_code, attendance_date) stays the source of truth; this only lets
+// rescans be rejected without a query, and counts who is in the lab today.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DailyAttendanceIndex {
+
+    private final AttendanceRepository attendanceRepository;
+
+    private volatile Day today = new Day(LocalDate.MIN, ConcurrentHashMap.newKeySet(), new LongAdder());
+
+    public boolean contains(String code, LocalDate date) {
+        Day current = today;
+        return current.date.equals(date) && current.codes.contains(code);
+    }
+
+    public long countAttended(LocalDate date) {
+        Day current = today;
+        return current.date.equals(date) ? current.present.sum() : 0;
+    }
+
+    public void markAttended(String code, LocalDate date) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(code, date);
+                }
+            });
+        } else {
+            add(code, date);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 0 0 * * *")
+    public void reload() {
+        LocalDate date = LocalDate.now();
+        Set<String> codes = ConcurrentHashMap.newKeySet();
+        codes.addAll(attendanceRepository.findUserCodesByAttendanceDate(date));
+        LongAdder present = new LongAdder();
+        present.add(codes.size());
+        today = new Day(date, codes, present);
+        log.info("Loaded {} attendances for {}", codes.size(), date);
+    }
+
+    private void add(String code, LocalDate date) {
+        Day current = today;
+        if (current.date.equals(date) && current.codes.add(code)) {
+            current.present.increment();
+        }
+    }
+
+    private record Day(LocalDate date, Set<String> codes, LongAdder present) {
+    }
+}
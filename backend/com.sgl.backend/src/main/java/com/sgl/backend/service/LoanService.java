@@ -1,11 +1,18 @@
 package com.sgl.backend.service;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import com.sgl.backend.dto.BulkLoanRequest;
 import com.sgl.backend.dto.LoanRequest;
 import com.sgl.backend.dto.LoanResponse;
 import com.sgl.backend.entity.Equipment;
@@ -20,7 +27,9 @@ import com.sgl.backend.repository.UserRepository;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional
@@ -35,30 +44,47 @@ public class LoanService {
                 User student = validateStudent(request.getStudentCode());
                 Equipment equipment = validateEquipmentByBarcode(request.getBarcode());
 
-                if (equipment.getAvailableUnits() <= 0) {
-                        throw new SglException(
-                                        "Equipment not found: '" + equipment.getName()
-                                                        + "' has no available units",
-                                        HttpStatus.CONFLICT);
-                }
-
-                Loan loan = Loan.builder()
-                                .equipment(equipment)
-                                .student(student)
-                                .monitor(monitor)
-                                .loanDateTime(LocalDateTime.now())
-                                .status(LoanStatus.ACTIVE)
-                                .build();
+                takeUnits(equipment, 1);
 
+                Loan loan = buildLoan(equipment, student, monitor, LocalDateTime.now());
                 loanRepo.save(loan);
 
-                equipment.setAvailableUnits(equipment.getAvailableUnits() - 1);
-                if (equipment.getAvailableUnits() == 0) {
-                        equipment.setStatus(EquipmentStatus.LOANED);
+                return buildLoanResponse(loan);
+        }
+
+        // Validates the users once, then reserves every unit in the cart or none:
+        // any shortage throws and rolls back the units already taken.
+        public List<LoanResponse> registerLoans(BulkLoanRequest request) {
+                User monitor = validateMonitor(request.getMonitorCode());
+                User student = validateStudent(request.getStudentCode());
+
+                Map<String, Equipment> byBarcode = equipmentRepo.findAllByBarcodeIn(request.getBarcodes()).stream()
+                                .collect(Collectors.toMap(Equipment::getBarcode, Function.identity()));
+                List<String> missing = request.getBarcodes().stream()
+                                .filter(barcode -> !byBarcode.containsKey(barcode))
+                                .distinct()
+                                .toList();
+                if (!missing.isEmpty()) {
+                        throw new SglException("Equipment not found with barcode: " + String.join(", ", missing),
+                                        HttpStatus.NOT_FOUND);
                 }
-                equipmentRepo.save(equipment);
 
-                return buildLoanResponse(loan);
+                // A repeated barcode takes one unit per occurrence. Rows are updated in
+                // id order so two overlapping carts cannot deadlock on each other.
+                Map<Long, Long> units = request.getBarcodes().stream()
+                                .collect(Collectors.groupingBy(barcode -> byBarcode.get(barcode).getId(),
+                                                TreeMap::new, Collectors.counting()));
+                Map<Long, Equipment> byId = byBarcode.values().stream()
+                                .collect(Collectors.toMap(Equipment::getId, Function.identity()));
+                units.forEach((id, count) -> takeUnits(byId.get(id), count.intValue()));
+
+                LocalDateTime now = LocalDateTime.now();
+                List<Loan> loans = request.getBarcodes().stream()
+                                .map(barcode -> buildLoan(byBarcode.get(barcode), student, monitor, now))
+                                .toList();
+                loanRepo.insertAll(loans);
+
+                return loans.stream().map(this::buildLoanResponse).toList();
         }
 
         public LoanResponse returnLoan(Long loanId, String monitorCode) {
@@ -68,33 +94,62 @@ public class LoanService {
                                 .orElseThrow(() -> new SglException("Loan not found: " + loanId,
                                                 HttpStatus.NOT_FOUND));
 
-                if (loan.getStatus() == LoanStatus.RETURNED) {
+                LocalDateTime returnedAt = LocalDateTime.now();
+                if (loan.getStatus() == LoanStatus.RETURNED
+                                || loanRepo.markReturned(List.of(loanId), returnedAt, LoanStatus.ACTIVE,
+                                                LoanStatus.RETURNED) == 0) {
                         throw new SglException("This loan has already been returned", HttpStatus.BAD_REQUEST);
                 }
-
                 loan.setStatus(LoanStatus.RETURNED);
-                loan.setReturnDateTime(LocalDateTime.now());
-                loanRepo.save(loan);
+                loan.setReturnDateTime(returnedAt);
 
-                Equipment equipment = loan.getEquipment();
-                equipment.setAvailableUnits(equipment.getAvailableUnits() + 1);
-                equipment.setStatus(EquipmentStatus.AVAILABLE);
-                equipmentRepo.save(equipment);
+                returnUnits(loan.getEquipment(), 1);
 
                 return buildLoanResponse(loan);
         }
 
+        // Returns every loan or none, restocking one UPDATE per equipment.
+        public List<LoanResponse> returnLoans(List<Long> loanIds, String monitorCode) {
+                validateMonitor(monitorCode);
+
+                Set<Long> ids = new LinkedHashSet<>(loanIds);
+                Map<Long, Loan> loans = loanRepo.findAllById(ids).stream()
+                                .collect(Collectors.toMap(Loan::getId, Function.identity()));
+                List<String> missing = ids.stream()
+                                .filter(id -> !loans.containsKey(id))
+                                .map(String::valueOf)
+                                .toList();
+                if (!missing.isEmpty()) {
+                        throw new SglException("Loan not found: " + String.join(", ", missing), HttpStatus.NOT_FOUND);
+                }
+
+                LocalDateTime returnedAt = LocalDateTime.now();
+                if (loans.values().stream().anyMatch(loan -> loan.getStatus() == LoanStatus.RETURNED)
+                                || loanRepo.markReturned(ids, returnedAt, LoanStatus.ACTIVE,
+                                                LoanStatus.RETURNED) != ids.size()) {
+                        throw new SglException("This loan has already been returned", HttpStatus.BAD_REQUEST);
+                }
+
+                Map<Long, Equipment> equipment = new TreeMap<>();
+                Map<Long, Long> units = new TreeMap<>();
+                for (Loan loan : loans.values()) {
+                        loan.setStatus(LoanStatus.RETURNED);
+                        loan.setReturnDateTime(returnedAt);
+                        equipment.put(loan.getEquipment().getId(), loan.getEquipment());
+                        units.merge(loan.getEquipment().getId(), 1L, Long::sum);
+                }
+                units.forEach((id, count) -> returnUnits(equipment.get(id), count.intValue()));
+
+                return ids.stream().map(loans::get).map(this::buildLoanResponse).toList();
+        }
+
         public List<LoanResponse> getMyActiveLoans(String studentCode) {
                 validateStudentExists(studentCode);
-                return loanRepo.findByStudentCodeAndStatus(studentCode, LoanStatus.ACTIVE).stream()
-                                .map(this::buildLoanResponse)
-                                .toList();
+                return loanRepo.findResponsesByStudentCodeAndStatus(studentCode, LoanStatus.ACTIVE);
         }
 
         public List<LoanResponse> getAllActiveLoans() {
-                return loanRepo.findByStatus(LoanStatus.ACTIVE).stream()
-                                .map(this::buildLoanResponse)
-                                .toList();
+                return loanRepo.findResponsesByStatus(LoanStatus.ACTIVE);
         }
 
         private User validateMonitor(String code) {
@@ -129,6 +184,34 @@ public class LoanService {
                                                 "Equipment not found with barcode: " + barcode, HttpStatus.NOT_FOUND));
         }
 
+        private void takeUnits(Equipment equipment, int units) {
+                if (equipment.getAvailableUnits() < units
+                                || equipmentRepo.takeUnits(equipment.getId(), units, EquipmentStatus.LOANED) == 0) {
+                        throw new SglException(
+                                        "Equipment not found: '" + equipment.getName() + "' has "
+                                                        + (units == 1 ? "no" : "fewer than " + units)
+                                                        + " available units",
+                                        HttpStatus.CONFLICT);
+                }
+        }
+
+        private void returnUnits(Equipment equipment, int units) {
+                if (equipmentRepo.returnUnits(equipment.getId(), units, EquipmentStatus.AVAILABLE) == 0) {
+                        log.warn("Equipment {} has no room for {} returned unit(s); stock left unchanged",
+                                        equipment.getBarcode(), units);
+                }
+        }
+
+        private Loan buildLoan(Equipment equipment, User student, User monitor, LocalDateTime loanDateTime) {
+                return Loan.builder()
+                                .equipment(equipment)
+                                .student(student)
+                                .monitor(monitor)
+                                .loanDateTime(loanDateTime)
+                                .status(LoanStatus.ACTIVE)
+                                .build();
+        }
+
         private LoanResponse buildLoanResponse(Loan loan) {
                 return LoanResponse.builder()
                                 .id(loan.getId())
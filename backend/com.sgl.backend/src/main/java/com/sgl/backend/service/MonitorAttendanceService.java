@@ -3,7 +3,12 @@ package com.sgl.backend.service;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.itextpdf.text.Document;
 import com.itextpdf.text.PageSize;
@@ -13,29 +18,36 @@ import com.itextpdf.text.Chunk;
 import com.itextpdf.text.pdf.PdfPTable;
 import com.itextpdf.text.pdf.PdfWriter;
 
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.StringWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 import com.sgl.backend.dto.AttendanceRequest;
 import com.sgl.backend.dto.AttendanceResponse;
 import com.sgl.backend.dto.MonitorReportResponse;
+import com.sgl.backend.dto.OnDutyResponse;
 import com.sgl.backend.dto.AttendanceRequest.AttendanceType;
 import com.sgl.backend.entity.MonitorAttendance;
 import com.sgl.backend.entity.Role;
 import com.sgl.backend.entity.User;
 import com.sgl.backend.exception.SglException;
 import com.sgl.backend.repository.MonitorAttendanceRepository;
+import com.sgl.backend.repository.MonitorHoursRollupRepository.MonitorHoursTotal;
 import com.sgl.backend.repository.RoleRepository;
 import com.sgl.backend.repository.UserRepository;
+import com.sgl.backend.service.ReportCache.Report;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -45,10 +57,18 @@ import lombok.RequiredArgsConstructor;
 @Transactional
 public class MonitorAttendanceService {
 
+    private static final int PDF_CHUNK_ROWS = 200;
+
     private final MonitorAttendanceRepository attendanceRepo;
     private final UserRepository userRepo;
     private final RoleRepository roleRepo;
+    private final ReportCache reportCache;
+    private final OnDutyRegistry onDutyRegistry;
+    private final MonitorHoursRollupService hoursRollupService;
 
+    // Opening a shift is an insert guarded by the open-shift unique index and
+    // closing one is a conditional update, so concurrent taps from the same
+    // monitor cannot open two shifts or close one twice.
     public AttendanceResponse registerAttendance(AttendanceRequest request) {
         User monitor = validateMonitor(request.getMonitorCode());
 
@@ -62,46 +82,71 @@ public class MonitorAttendanceService {
 
         if (request.getType() == AttendanceType.CHECK_IN) {
 
-            if (lastRecord == null || lastRecord.getCheckOut() != null) {
-                record = MonitorAttendance.builder()
-                        .monitor(monitor)
-                        .date(today)
-                        .checkIn(LocalDateTime.now())
-                        .build();
-            } else if (lastRecord.getCheckIn() != null && lastRecord.getCheckOut() == null) {
+            if (lastRecord != null && lastRecord.getCheckIn() != null && lastRecord.getCheckOut() == null) {
                 throw new SglException("You already checked in and haven't checked out yet", HttpStatus.CONFLICT);
-            } else {
-                record = lastRecord;
             }
 
+            record = MonitorAttendance.builder()
+                    .monitor(monitor)
+                    .date(today)
+                    .checkIn(LocalDateTime.now())
+                    .build();
+            try {
+                attendanceRepo.saveAndFlush(record);
+            } catch (DataIntegrityViolationException e) {
+                throw new SglException("You already checked in and haven't checked out yet", e, HttpStatus.CONFLICT);
+            }
+            onDutyRegistry.opened(record);
+
         } else {
 
             if (lastRecord == null || lastRecord.getCheckIn() == null) {
                 throw new SglException("You cannot check out without checking in", HttpStatus.BAD_REQUEST);
             }
 
-            if (lastRecord.getCheckOut() != null) {
+            LocalDateTime now = LocalDateTime.now();
+            if (lastRecord.getCheckOut() != null || attendanceRepo.closeShift(lastRecord.getId(), now) == 0) {
                 throw new SglException("You already checked out, do check-in again for next shift",
                         HttpStatus.CONFLICT);
             }
 
             record = lastRecord;
-            record.setCheckOut(LocalDateTime.now());
+            record.setCheckOut(now);
+            hoursRollupService.recordShift(monitor.getCode(), record.getDate(),
+                    Duration.between(record.getCheckIn(), now).toMinutes());
+            onDutyRegistry.closed(monitor.getCode());
         }
 
-        attendanceRepo.save(record);
+        reportCache.invalidate(Set.of(Report.MONITOR), record.getDate());
         return buildResponse(record);
     }
 
+    public List<OnDutyResponse> getOnDuty() {
+        return onDutyRegistry.onDuty();
+    }
+
     public Page<MonitorReportResponse> getReport(LocalDate start, LocalDate end, Pageable pageable) {
+        return reportCache.get(Report.MONITOR, start, end, pageable, () -> loadReport(start, end, pageable));
+    }
+
+    // One query for the page of monitors and one for all of their shifts in
+    // the period, grouped here instead of a lookup per monitor.
+    private Page<MonitorReportResponse> loadReport(LocalDate start, LocalDate end, Pageable pageable) {
         Role monitorRole = roleRepo.findByName("MONITOR")
                 .orElseThrow(() -> new SglException("Monitor role not found", HttpStatus.NOT_FOUND));
 
         Page<User> monitorPage = userRepo.findByRole(monitorRole, pageable);
+        if (monitorPage.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, monitorPage.getTotalElements());
+        }
+
+        List<String> codes = monitorPage.map(User::getCode).getContent();
+        Map<String, List<MonitorAttendance>> shiftsByMonitor = attendanceRepo
+                .findShiftsByMonitorsAndPeriod(codes, start, end).stream()
+                .collect(Collectors.groupingBy(r -> r.getMonitor().getCode()));
 
         return monitorPage.map(monitor -> {
-            List<MonitorAttendance> records = attendanceRepo
-                    .findByMonitorCodeAndDateBetween(monitor.getCode(), start, end);
+            List<MonitorAttendance> records = shiftsByMonitor.getOrDefault(monitor.getCode(), List.of());
 
             List<AttendanceResponse> attendances = records.stream()
                     .map(this::buildResponse)
@@ -117,6 +162,7 @@ public class MonitorAttendanceService {
                     .monitorName(monitor.getName())
                     .totalDaysWorked(
                         (int) records.stream()
+                            .filter(r -> r.getCheckOut() != null && !r.isAutoClosed())
                             .map(MonitorAttendance::getDate)
                             .distinct()
                             .count()
@@ -127,12 +173,12 @@ public class MonitorAttendanceService {
         });
     }
 
-    public byte[] generateMonitorReportPdf(List<MonitorReportResponse> data, LocalDate start, LocalDate end) {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    public void writeMonitorReportPdf(LocalDate start, LocalDate end, OutputStream out) {
         Document document = new Document(PageSize.A4.rotate());
 
-        try {
-            PdfWriter.getInstance(document, baos);
+        try (Stream<MonitorHoursTotal> rows = hoursRollupService.streamTotals(start, end)) {
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            writer.setCloseStream(false);
             document.open();
 
             document.add(new Paragraph("REPORTE DE ASISTENCIA DE MONITORES",
@@ -142,40 +188,51 @@ public class MonitorAttendanceService {
 
             PdfPTable table = new PdfPTable(4);
             table.setWidthPercentage(100);
+            table.setHeaderRows(1);
+            table.setComplete(false);
             table.addCell("Código");
             table.addCell("Nombre");
             table.addCell("Días");
             table.addCell("Horas");
 
-            for (MonitorReportResponse m : data) {
+            int written = 0;
+            Iterator<MonitorReportResponse> it = rows.map(MonitorAttendanceService::toTotals).iterator();
+            while (it.hasNext()) {
+                MonitorReportResponse m = it.next();
                 table.addCell(m.getMonitorCode());
                 table.addCell(m.getMonitorName());
                 table.addCell(String.valueOf(m.getTotalDaysWorked()));
                 table.addCell(String.format("%.2f", m.getTotalHoursWorked()));
+
+                if (++written % PDF_CHUNK_ROWS == 0) {
+                    document.add(table);
+                }
             }
 
+            table.setComplete(true);
             document.add(table);
 
         } catch (Exception e) {
             throw new SglException("Error generating PDF", HttpStatus.INTERNAL_SERVER_ERROR);
         } finally {
-            document.close();
+            if (document.isOpen()) {
+                document.close();
+            }
         }
-
-        return baos.toByteArray();
     }
 
-    public byte[] generateMonitorReportCsv(List<MonitorReportResponse> data) {
-        StringWriter writer = new StringWriter();
-        CSVPrinter csvPrinter;
+    public void writeMonitorReportCsv(LocalDate start, LocalDate end, OutputStream out) {
+        CSVFormat csvFormat = CSVFormat.DEFAULT.builder()
+                .setHeader("Código", "Nombre", "Días Trabajados", "Horas Totales")
+                .build();
 
-        try {
-            CSVFormat csvFormat = CSVFormat.DEFAULT.builder()
-                    .setHeader("Código", "Nombre", "Días Trabajados", "Horas Totales")
-                    .build();
-            csvPrinter = new CSVPrinter(writer, csvFormat);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try (Stream<MonitorHoursTotal> rows = hoursRollupService.streamTotals(start, end)) {
+            CSVPrinter csvPrinter = new CSVPrinter(writer, csvFormat);
 
-            for (MonitorReportResponse m : data) {
+            Iterator<MonitorReportResponse> it = rows.map(MonitorAttendanceService::toTotals).iterator();
+            while (it.hasNext()) {
+                MonitorReportResponse m = it.next();
                 csvPrinter.printRecord(
                         m.getMonitorCode(),
                         m.getMonitorName(),
@@ -183,13 +240,22 @@ public class MonitorAttendanceService {
                         String.format("%.2f", m.getTotalHoursWorked()));
             }
 
-            csvPrinter.close();
-            return writer.toString().getBytes(StandardCharsets.UTF_8);
+            csvPrinter.flush();
         } catch (IOException e) {
             throw new SglException("Error generating CSV", HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
+    // Export totals come from the daily hours rollup, one row per monitor.
+    private static MonitorReportResponse toTotals(MonitorHoursTotal row) {
+        return MonitorReportResponse.builder()
+                .monitorCode(row.getMonitorCode())
+                .monitorName(row.getMonitorName())
+                .totalDaysWorked((int) row.getDaysWorked())
+                .totalHoursWorked(row.getMinutesWorked() / 60.0)
+                .build();
+    }
+
     private User validateMonitor(String code) {
         User user = userRepo.findById(code)
                 .orElseThrow(() -> new SglException("Monitor not found", HttpStatus.NOT_FOUND));
@@ -203,7 +269,10 @@ public class MonitorAttendanceService {
         Double hours = null;
         String status = "MISSING";
 
-        if (ma.getCheckIn() != null && ma.getCheckOut() != null) {
+        if (ma.isAutoClosed()) {
+            hours = 0.0;
+            status = "AUTO_CLOSED";
+        } else if (ma.getCheckIn() != null && ma.getCheckOut() != null) {
             hours = Duration.between(ma.getCheckIn(), ma.getCheckOut()).toMinutes() / 60.0;
             status = "COMPLETED";
         } else if (ma.getCheckIn() != null) {
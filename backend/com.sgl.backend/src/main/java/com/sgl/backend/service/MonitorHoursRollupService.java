@@ -0,0 +1,67 @@
+package com.sgl.backend.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+
+import com.sgl.backend.entity.MonitorHoursRollup;
+import com.sgl.backend.repository.MonitorAttendanceRepository;
+import com.sgl.backend.repository.MonitorAttendanceRepository.MonitorShiftRow;
+import com.sgl.backend.repository.MonitorHoursRollupRepository;
+import com.sgl.backend.repository.MonitorHoursRollupRepository.MonitorHoursTotal;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+
+// Per monitor and day: minutes worked and shifts closed by a check-out.
+// Shifts closed by MonitorShiftSweeper credit no hours and are left out.
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class MonitorHoursRollupService {
+
+    private final MonitorHoursRollupRepository rollupRepo;
+    private final MonitorAttendanceRepository attendanceRepo;
+
+    public void recordShift(String monitorCode, LocalDate date, long minutes) {
+        rollupRepo.increment(monitorCode, date, minutes, 1);
+    }
+
+    // Callers must consume the stream inside their transaction.
+    public Stream<MonitorHoursTotal> streamTotals(LocalDate start, LocalDate end) {
+        return rollupRepo.streamTotalsByPeriod(start, end);
+    }
+
+    public int rebuild() {
+        rollupRepo.deleteAllInBatch();
+
+        Map<String, MonitorHoursRollup> rollups = new TreeMap<>();
+        try (Stream<MonitorShiftRow> shifts = attendanceRepo.streamClosedShifts()) {
+            shifts.forEach(shift -> {
+                MonitorHoursRollup day = rollups.computeIfAbsent(shift.getMonitorCode() + "|" + shift.getDate(),
+                        key -> MonitorHoursRollup.builder()
+                                .monitorCode(shift.getMonitorCode())
+                                .workDate(shift.getDate())
+                                .minutes(0L)
+                                .shifts(0)
+                                .build());
+                day.setMinutes(day.getMinutes() + minutesWorked(shift));
+                day.setShifts(day.getShifts() + 1);
+            });
+        }
+
+        List<MonitorHoursRollup> rows = new ArrayList<>(rollups.values());
+        rollupRepo.saveAll(rows);
+        return rows.size();
+    }
+
+    private static long minutesWorked(MonitorShiftRow shift) {
+        return Duration.between(shift.getCheckIn(), shift.getCheckOut()).toMinutes();
+    }
+}
@@ -0,0 +1,76 @@
+package com.sgl.backend.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.sgl.backend.entity.MonitorAttendance;
+import com.sgl.backend.repository.MonitorAttendanceRepository;
+import com.sgl.backend.service.ReportCache.Report;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// Closes shifts left open longer than monitor.shifts.max-duration, for
+// monitors who forgot to check out. They are closed at their check-in time
+// (no hours credited) and flagged auto_closed so an admin can correct them,
+// instead of staying IN_PROGRESS in every report.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MonitorShiftSweeper {
+
+    private static final int UPDATE_CHUNK = 500;
+
+    private final MonitorAttendanceRepository attendanceRepo;
+    private final OnDutyRegistry onDutyRegistry;
+    private final ReportCache reportCache;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${monitor.shifts.max-duration:PT12H}")
+    private Duration maxDuration = Duration.ofHours(12);
+
+    @Scheduled(cron = "${monitor.shifts.sweep-cron:0 0 * * * *}")
+    @Transactional
+    public int sweep() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(maxDuration);
+        List<MonitorAttendance> stale = attendanceRepo.findOpenShiftsCheckedInBefore(cutoff);
+        if (stale.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> ids = stale.stream().map(MonitorAttendance::getId).toList();
+        int closed = 0;
+        for (int from = 0; from < ids.size(); from += UPDATE_CHUNK) {
+            closed += attendanceRepo.autoCloseShifts(ids.subList(from, Math.min(from + UPDATE_CHUNK, ids.size())));
+        }
+
+        Map<String, Set<LocalDate>> datesByMonitor = stale.stream()
+                .collect(Collectors.groupingBy(shift -> shift.getMonitor().getCode(), TreeMap::new,
+                        Collectors.mapping(MonitorAttendance::getDate, Collectors.toCollection(TreeSet::new))));
+        // The registry only holds today's shifts; a stale shift from an earlier
+        // day must not drop the monitor's open shift for today.
+        LocalDate today = LocalDate.now();
+        stale.stream()
+                .filter(shift -> shift.getDate().equals(today))
+                .forEach(shift -> onDutyRegistry.closed(shift.getMonitor().getCode()));
+        stale.stream().map(MonitorAttendance::getDate).distinct()
+                .forEach(date -> reportCache.invalidate(Set.of(Report.MONITOR), date));
+
+        meterRegistry.counter("monitor.shifts.auto_closed").increment(closed);
+        log.warn("Auto-closed {} monitor shifts checked in before {}: {}", closed, cutoff, datesByMonitor);
+        return closed;
+    }
+}
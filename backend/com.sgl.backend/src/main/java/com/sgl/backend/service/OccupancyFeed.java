@@ -0,0 +1,78 @@
+package com.sgl.backend.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.sgl.backend.dto.OccupancyResponse;
+
+import lombok.RequiredArgsConstructor;
+
+// Pushes today's lab occupancy to dashboards over Server-Sent Events. Changes
+// are coalesced and sent at most once per publish interval, so a burst of
+// scans costs one event per subscriber.
+@Service
+@RequiredArgsConstructor
+public class OccupancyFeed {
+
+    private final DailyAttendanceIndex attendanceIndex;
+
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    private volatile OccupancyResponse lastPublished;
+
+    @Value("${attendance.occupancy.emitter-timeout:PT30M}")
+    private Duration emitterTimeout = Duration.ofMinutes(30);
+
+    public OccupancyResponse current() {
+        LocalDate today = LocalDate.now();
+        return OccupancyResponse.builder()
+                .date(today)
+                .present(attendanceIndex.countAttended(today))
+                .build();
+    }
+
+    public SseEmitter subscribe() {
+        return register(new SseEmitter(emitterTimeout.toMillis()));
+    }
+
+    SseEmitter register(SseEmitter emitter) {
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> emitters.remove(emitter));
+        emitters.add(emitter);
+        send(emitter, current());
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return emitters.size();
+    }
+
+    @Scheduled(fixedDelayString = "${attendance.occupancy.publish-interval:PT1S}")
+    public void publish() {
+        OccupancyResponse snapshot = current();
+        if (snapshot.equals(lastPublished)) {
+            return;
+        }
+        lastPublished = snapshot;
+        for (SseEmitter emitter : emitters) {
+            send(emitter, snapshot);
+        }
+    }
+
+    private void send(SseEmitter emitter, OccupancyResponse snapshot) {
+        try {
+            emitter.send(SseEmitter.event().name("occupancy").data(snapshot));
+        } catch (IOException | IllegalStateException e) {
+            // client went away; the container completes the emitter
+            emitters.remove(emitter);
+        }
+    }
+}
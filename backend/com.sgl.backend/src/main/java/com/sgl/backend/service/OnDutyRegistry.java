@@ -0,0 +1,81 @@
+package com.sgl.backend.service;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.sgl.backend.dto.OnDutyResponse;
+import com.sgl.backend.entity.MonitorAttendance;
+import com.sgl.backend.repository.MonitorAttendanceRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// Today's open monitor shifts, keyed by monitor code. The open-shift index
+// and the conditional check-out stay the source of truth; this only answers
+// "who is on duty now" without a query and is updated after commit.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OnDutyRegistry {
+
+    private final MonitorAttendanceRepository attendanceRepo;
+
+    private final Map<String, OnDutyResponse> openShifts = new ConcurrentHashMap<>();
+
+    public List<OnDutyResponse> onDuty() {
+        return openShifts.values().stream()
+                .sorted(Comparator.comparing(OnDutyResponse::getCheckIn))
+                .toList();
+    }
+
+    public void opened(MonitorAttendance shift) {
+        OnDutyResponse entry = toEntry(shift);
+        afterCommit(() -> openShifts.put(entry.getMonitorCode(), entry));
+    }
+
+    public void closed(String monitorCode) {
+        afterCommit(() -> openShifts.remove(monitorCode));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 0 0 * * *")
+    public void reload() {
+        Map<String, OnDutyResponse> loaded = new ConcurrentHashMap<>();
+        attendanceRepo.findOpenShifts(LocalDate.now())
+                .forEach(shift -> loaded.put(shift.getMonitor().getCode(), toEntry(shift)));
+        openShifts.keySet().retainAll(loaded.keySet());
+        openShifts.putAll(loaded);
+        log.info("Loaded {} open monitor shifts", loaded.size());
+    }
+
+    private static OnDutyResponse toEntry(MonitorAttendance shift) {
+        return OnDutyResponse.builder()
+                .monitorCode(shift.getMonitor().getCode())
+                .monitorName(shift.getMonitor().getName())
+                .checkIn(shift.getCheckIn())
+                .build();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
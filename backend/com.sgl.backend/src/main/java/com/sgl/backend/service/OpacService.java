@@ -2,23 +2,96 @@ package com.sgl.backend.service;
 
 import com.sgl.backend.exception.SglException;
 import com.sgl.backend.dto.OpacUserInfo;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
 @Service
 @RequiredArgsConstructor
 public class OpacService {
 
     private final RestTemplate restTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Lookup> lookups = new ConcurrentHashMap<>();
 
     @Value("${opac.base-url}")
     private String opacBaseUrl;
 
+    @Value("${opac.cache.ttl:12h}")
+    private Duration ttl = Duration.ofHours(12);
+
+    @Value("${opac.cache.negative-ttl:10m}")
+    private Duration negativeTtl = Duration.ofMinutes(10);
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("opac.cache.size", lookups, Map::size).register(meterRegistry);
+    }
+
+    // Successful lookups are cached for opac.cache.ttl and "not found" answers
+    // for opac.cache.negative-ttl; concurrent calls for the same code share one
+    // request. Other failures are not cached.
     public OpacUserInfo fetchUserInfo(String code) {
+        while (true) {
+            Lookup existing = lookups.get(code);
+            if (existing != null && !existing.isExpired()) {
+                record(!existing.isDone() ? "shared" : existing.isFailed() ? "negative_hit" : "hit");
+                return existing.join();
+            }
+
+            Lookup lookup = new Lookup();
+            boolean claimed = existing == null
+                    ? lookups.putIfAbsent(code, lookup) == null
+                    : lookups.replace(code, existing, lookup);
+            if (claimed) {
+                record("miss");
+                load(code, lookup);
+                return lookup.join();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${opac.cache.cleanup-interval:PT10M}")
+    public void evictExpired() {
+        lookups.values().removeIf(Lookup::isExpired);
+    }
+
+    private void load(String code, Lookup lookup) {
+        try {
+            lookup.complete(requestUserInfo(code), ttl);
+        } catch (SglException e) {
+            if (e.getStatus() == HttpStatus.NOT_FOUND) {
+                lookup.fail(e, negativeTtl);
+            } else {
+                lookup.fail(e, Duration.ZERO);
+                lookups.remove(code, lookup);
+            }
+        } catch (Throwable t) {
+            // never leave waiters blocked on a lookup that will not complete
+            lookup.fail(new SglException("OPAC user info error: " + t.getMessage(), t,
+                    HttpStatus.INTERNAL_SERVER_ERROR), Duration.ZERO);
+            lookups.remove(code, lookup);
+            throw t;
+        }
+    }
+
+    private OpacUserInfo requestUserInfo(String code) {
         try {
             String url = opacBaseUrl + "/student/preview/" + code;
             HttpHeaders headers = new HttpHeaders();
@@ -39,8 +112,50 @@ public class OpacService {
             throw new SglException("Unauthorized access to OPAC service", e, HttpStatus.UNAUTHORIZED);
         } catch (HttpClientErrorException e) {
             throw new SglException("OPAC user info failed: Invalid code " + code, e, HttpStatus.BAD_REQUEST);
+        } catch (HttpServerErrorException | ResourceAccessException e) {
+            // 5xx, timeout or connection refused: the user may exist, ask again later
+            throw new SglException("OPAC service unavailable: " + e.getMessage(), e, HttpStatus.SERVICE_UNAVAILABLE);
         } catch (Exception e) {
             throw new SglException("OPAC user info error: " + e.getMessage(), e, HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
+
+    private void record(String result) {
+        meterRegistry.counter("opac.lookups", "result", result).increment();
+    }
+
+    private static final class Lookup {
+        private final CompletableFuture<OpacUserInfo> result = new CompletableFuture<>();
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        void complete(OpacUserInfo info, Duration ttl) {
+            expiresAt = System.nanoTime() + ttl.toNanos();
+            result.complete(info);
+        }
+
+        void fail(SglException error, Duration ttl) {
+            expiresAt = System.nanoTime() + ttl.toNanos();
+            result.completeExceptionally(error);
+        }
+
+        boolean isDone() {
+            return result.isDone();
+        }
+
+        boolean isFailed() {
+            return result.isCompletedExceptionally();
+        }
+
+        boolean isExpired() {
+            return expiresAt != Long.MAX_VALUE && System.nanoTime() - expiresAt >= 0;
+        }
+
+        OpacUserInfo join() {
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                throw (SglException) e.getCause();
+            }
+        }
+    }
 }
@@ -103,18 +103,6 @@ public class PracticeService {
         }
 
         public Page<PracticeResponse> getMySchedules(String teacherCode, Pageable pageable) {
-                Page<PracticeSchedule> schedules = scheduleRepo.findByTeacherCode(teacherCode, pageable);
-
-                return schedules.map(schedule -> PracticeResponse.builder()
-                                .id(schedule.getId())
-                                .subject(schedule.getSubject())
-                                .practiceType(schedule.getPracticeType())
-                                .date(schedule.getDate())
-                                .startTime(schedule.getStartTime())
-                                .endTime(schedule.getEndTime())
-                                .durationMinutes(schedule.getDurationMinutes())
-                                .laboratoryName(schedule.getLaboratory().getName())
-                                .studentCount(schedule.getStudentCount())
-                                .build());
+                return scheduleRepo.findResponsesByTeacherCode(teacherCode, pageable);
         }
 }
@@ -0,0 +1,117 @@
+package com.sgl.backend.service;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+// Computed reports keyed by report and period, least recently used evicted
+// past report.cache.max-entries. Writes drop the entries whose period
+// contains the written date once they commit. A report computed while a write
+// commits is returned but not stored, so a stale result never outlives the
+// invalidation.
+@Component
+@RequiredArgsConstructor
+public class ReportCache {
+
+    public enum Report {
+        ATTENDANCE_MONTHLY,
+        ATTENDANCE_SUMMARY,
+        ATTENDANCE_TOTALS,
+        MONITOR
+    }
+
+    public static final Set<Report> ATTENDANCE_REPORTS = Set.of(
+            Report.ATTENDANCE_MONTHLY, Report.ATTENDANCE_SUMMARY, Report.ATTENDANCE_TOTALS);
+
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong generation = new AtomicLong();
+    private final Map<Key, Object> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    @Value("${report.cache.max-entries:500}")
+    private int maxEntries = 500;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("report.cache.size", this, ReportCache::size).register(meterRegistry);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(Report report, LocalDate start, LocalDate end, Object params, Supplier<T> loader) {
+        Key key = new Key(report, start, end, params);
+        synchronized (entries) {
+            Object cached = entries.get(key);
+            if (cached != null) {
+                record(report, "hit");
+                return (T) cached;
+            }
+        }
+
+        record(report, "miss");
+        long before = generation.get();
+        T value = loader.get();
+        synchronized (entries) {
+            if (value != null && generation.get() == before) {
+                entries.put(key, value);
+            }
+        }
+        return value;
+    }
+
+    public void invalidate(Set<Report> reports, LocalDate date) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            generation.incrementAndGet();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(reports, date);
+                }
+            });
+        } else {
+            evict(reports, date);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public static boolean isClosed(LocalDate end) {
+        return end.isBefore(LocalDate.now());
+    }
+
+    private void evict(Set<Report> reports, LocalDate date) {
+        generation.incrementAndGet();
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> reports.contains(key.report())
+                    && !date.isBefore(key.start()) && !date.isAfter(key.end()));
+        }
+    }
+
+    private void record(Report report, String result) {
+        meterRegistry.counter("report.cache.requests", "report", report.name(), "result", result).increment();
+    }
+
+    private record Key(Report report, LocalDate start, LocalDate end, Object params) {
+    }
+}
@@ -0,0 +1,234 @@
+package com.sgl.backend.service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import com.sgl.backend.dto.ReportJobRequest;
+import com.sgl.backend.dto.ReportJobRequest.ReportFormat;
+import com.sgl.backend.dto.ReportJobRequest.ReportType;
+import com.sgl.backend.dto.ReportJobResponse;
+import com.sgl.backend.dto.ReportJobResponse.JobStatus;
+import com.sgl.backend.exception.SglException;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReportJobService {
+
+    private static final String FILE_PREFIX = "report-";
+
+    private final AttendanceService attendanceService;
+    private final MonitorAttendanceService monitorAttendanceService;
+    private final ThreadPoolTaskExecutor reportJobExecutor;
+
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, ReportJob> pendingJobs = new ConcurrentHashMap<>();
+
+    @Value("${report.jobs.dir:${java.io.tmpdir}/sgl-reports}")
+    private String dir;
+
+    @Value("${report.jobs.ttl:1h}")
+    private Duration ttl;
+
+    @PostConstruct
+    void init() throws IOException {
+        Path root = Paths.get(dir);
+        Files.createDirectories(root);
+        try (DirectoryStream<Path> orphans = Files.newDirectoryStream(root, FILE_PREFIX + "*")) {
+            for (Path orphan : orphans) {
+                deleteQuietly(orphan);
+            }
+        }
+    }
+
+    public ReportJobResponse submit(ReportJobRequest request) {
+        validate(request);
+
+        String key = jobKey(request);
+        ReportJob job = new ReportJob(UUID.randomUUID().toString(), key, request);
+        // registered before it is published, so whoever finds it in pendingJobs
+        // can already look it up by id
+        jobs.put(job.id, job);
+        ReportJob pending = pendingJobs.putIfAbsent(key, job);
+        if (pending != null) {
+            jobs.remove(job.id);
+            return toResponse(pending);
+        }
+
+        try {
+            reportJobExecutor.execute(() -> run(job));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.id);
+            pendingJobs.remove(key, job);
+            throw new SglException("Report queue is full, try again later", e, HttpStatus.SERVICE_UNAVAILABLE);
+        }
+
+        return toResponse(job);
+    }
+
+    public ReportJobResponse getJob(String id) {
+        return toResponse(findJob(id));
+    }
+
+    public Resource getArtifact(String id) {
+        ReportJob job = findJob(id);
+        if (job.status != JobStatus.DONE) {
+            throw new SglException("Report job " + id + " is not finished", HttpStatus.CONFLICT);
+        }
+        if (job.file == null || !Files.exists(job.file)) {
+            throw new SglException("Report job " + id + " has expired", HttpStatus.GONE);
+        }
+        return new FileSystemResource(job.file);
+    }
+
+    @Scheduled(fixedDelayString = "${report.jobs.cleanup-interval:PT5M}")
+    public int purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(ttl);
+        int removed = 0;
+
+        for (ReportJob job : jobs.values()) {
+            if (job.completedAt != null && !job.completedAt.isAfter(cutoff)) {
+                jobs.remove(job.id);
+                if (job.file != null) {
+                    deleteQuietly(job.file);
+                }
+                removed++;
+            }
+        }
+
+        if (removed > 0) {
+            log.info("Purged {} expired report jobs", removed);
+        }
+        return removed;
+    }
+
+    private void run(ReportJob job) {
+        job.status = JobStatus.RUNNING;
+        Path file = Paths.get(dir).resolve(FILE_PREFIX + job.id + "." + job.request.getFormat().getExtension());
+
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            write(job.request, out);
+            job.file = file;
+            job.completedAt = LocalDateTime.now();
+            job.status = JobStatus.DONE;
+        } catch (Exception e) {
+            log.warn("Report job {} failed", job.id, e);
+            deleteQuietly(file);
+            job.error = e.getMessage();
+            job.completedAt = LocalDateTime.now();
+            job.status = JobStatus.FAILED;
+        } finally {
+            pendingJobs.remove(job.key, job);
+        }
+    }
+
+    private void write(ReportJobRequest request, OutputStream out) throws IOException {
+        if (request.getType() == ReportType.ATTENDANCE) {
+            if (request.getFormat() == ReportFormat.PDF) {
+                attendanceService.writeAttendancePdf(request.getYear(), request.getMonth(), out);
+            } else {
+                attendanceService.writeAttendanceCsv(request.getYear(), request.getMonth(), out);
+            }
+        } else {
+            if (request.getFormat() == ReportFormat.PDF) {
+                monitorAttendanceService.writeMonitorReportPdf(request.getStart(), request.getEnd(), out);
+            } else {
+                monitorAttendanceService.writeMonitorReportCsv(request.getStart(), request.getEnd(), out);
+            }
+        }
+    }
+
+    private void validate(ReportJobRequest request) {
+        if (request.getType() == ReportType.ATTENDANCE) {
+            if (request.getYear() == null || request.getMonth() == null
+                    || request.getMonth() < 1 || request.getMonth() > 12) {
+                throw new SglException("Attendance reports require a valid year and month");
+            }
+        } else if (request.getStart() == null || request.getEnd() == null
+                || request.getStart().isAfter(request.getEnd())) {
+            throw new SglException("Monitor reports require a valid start and end date");
+        }
+    }
+
+    private ReportJob findJob(String id) {
+        ReportJob job = jobs.get(id);
+        if (job == null) {
+            throw new SglException("Report job not found: " + id, HttpStatus.NOT_FOUND);
+        }
+        return job;
+    }
+
+    private static String jobKey(ReportJobRequest request) {
+        return request.getType() == ReportType.ATTENDANCE
+                ? request.getType() + ":" + request.getFormat() + ":" + request.getYear() + "-" + request.getMonth()
+                : request.getType() + ":" + request.getFormat() + ":" + request.getStart() + "/" + request.getEnd();
+    }
+
+    private static String fileName(ReportJobRequest request) {
+        String suffix = request.getType() == ReportType.ATTENDANCE
+                ? request.getYear() + "_" + String.format("%02d", request.getMonth())
+                : request.getStart() + "_" + request.getEnd();
+        return "reporte_asistencia_" + suffix + "." + request.getFormat().getExtension();
+    }
+
+    private static ReportJobResponse toResponse(ReportJob job) {
+        return ReportJobResponse.builder()
+                .id(job.id)
+                .type(job.request.getType())
+                .format(job.request.getFormat())
+                .status(job.status)
+                .fileName(fileName(job.request))
+                .error(job.error)
+                .createdAt(job.createdAt)
+                .completedAt(job.completedAt)
+                .build();
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete report file {}", file, e);
+        }
+    }
+
+    private static final class ReportJob {
+        private final String id;
+        private final String key;
+        private final ReportJobRequest request;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private volatile JobStatus status = JobStatus.QUEUED;
+        private volatile Path file;
+        private volatile String error;
+        private volatile LocalDateTime completedAt;
+
+        private ReportJob(String id, String key, ReportJobRequest request) {
+            this.id = id;
+            this.key = key;
+            this.request = request;
+        }
+    }
+}
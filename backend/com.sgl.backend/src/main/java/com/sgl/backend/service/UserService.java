@@ -4,6 +4,7 @@ import java.util.List;
 
 import org.springframework.stereotype.Service;
 
+import com.sgl.backend.dto.UserResponse;
 import com.sgl.backend.entity.Role;
 import com.sgl.backend.entity.User;
 import com.sgl.backend.exception.SglException;
@@ -28,7 +29,7 @@ public class UserService {
         return userRepository.save(user);
     }
 
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    public List<UserResponse> getAllUsers() {
+        return userRepository.findAllResponses();
     }
 }
@@ -0,0 +1,95 @@
+-- Schema as previously generated by ddl-auto=update. IF NOT EXISTS lets this
+-- run both on an empty database and on one Hibernate already created.
+
+create table if not exists roles (
+    id bigint generated by default as identity,
+    name varchar(255) not null unique,
+    primary key (id)
+);
+
+create table if not exists users (
+    code varchar(255) not null,
+    role_id bigint not null,
+    document varchar(255),
+    email varchar(255),
+    name varchar(255),
+    password varchar(255),
+    primary key (code),
+    constraint FKp56c1712k691lhsyewcssf40f foreign key (role_id) references roles
+);
+
+create table if not exists laboratories (
+    id bigint generated by default as identity,
+    active boolean not null,
+    capacity integer not null,
+    name varchar(255) not null unique,
+    primary key (id)
+);
+
+create table if not exists equipment (
+    id bigint generated by default as identity,
+    available_units integer not null,
+    total_units integer not null,
+    barcode varchar(255) not null unique,
+    name varchar(255) not null,
+    status varchar(255) not null check (status in ('AVAILABLE','LOANED')),
+    primary key (id)
+);
+
+create table if not exists attendances (
+    id bigint generated by default as identity,
+    timestamp timestamp(6) not null,
+    user_code varchar(255) not null,
+    primary key (id),
+    constraint FKeibqahb6wpnqqdhaxnajoxo21 foreign key (user_code) references users
+);
+
+create table if not exists attendance_rollups (
+    id bigint generated by default as identity,
+    bucket_date date not null,
+    total bigint not null,
+    granularity varchar(10) not null check (granularity in ('DAY','MONTH')),
+    role_name varchar(255) not null,
+    primary key (id),
+    constraint uk_attendance_rollups_bucket unique (granularity, bucket_date, role_name)
+);
+
+create table if not exists loans (
+    id bigint generated by default as identity,
+    equipment_id bigint not null,
+    loan_date_time timestamp(6) not null,
+    return_date_time timestamp(6),
+    monitor_code varchar(255) not null,
+    status varchar(255) not null check (status in ('ACTIVE','RETURNED')),
+    student_code varchar(255) not null,
+    primary key (id),
+    constraint FK2esxh0af98iptaal2itr7movl foreign key (equipment_id) references equipment,
+    constraint FKgm6hofbuta853aomvgsfmtaty foreign key (monitor_code) references users,
+    constraint FKr9rapljwvi38q94gy5b8e5a1 foreign key (student_code) references users
+);
+
+create table if not exists "monitor:attendance" (
+    id bigint generated by default as identity,
+    date date not null,
+    check_in timestamp(6),
+    check_out timestamp(6),
+    monitor_code varchar(255) not null,
+    primary key (id),
+    constraint FKfseqjh0kmar56tpshvx9ddgrk foreign key (monitor_code) references users
+);
+
+create table if not exists practice_schedules (
+    id bigint generated by default as identity,
+    date date not null,
+    duration_minutes integer not null,
+    end_time time(6) not null,
+    start_time time(6) not null,
+    student_count integer not null,
+    laboratory_id bigint not null,
+    practice_type varchar(255) not null check (practice_type in ('ELECTRONICA','FISICA')),
+    subject varchar(255) not null,
+    teacher_code varchar(255) not null,
+    primary key (id),
+    constraint FKknr2dsmcc3naes2o8pq18po48 foreign key (laboratory_id) references laboratories,
+    constraint FK7uybr4k259arn0vyx9rdq70jj foreign key (teacher_code) references users
+);
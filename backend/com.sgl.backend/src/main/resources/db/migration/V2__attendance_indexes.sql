@@ -0,0 +1,2 @@
+create index if not exists idx_attendances_user_code_timestamp on attendances (user_code, timestamp);
+create index if not exists idx_attendances_timestamp on attendances (timestamp);
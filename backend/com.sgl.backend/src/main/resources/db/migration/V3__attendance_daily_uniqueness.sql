@@ -0,0 +1,14 @@
+alter table attendances add column if not exists attendance_date date;
+
+update attendances set attendance_date = cast(timestamp as date) where attendance_date is null;
+
+-- keep the first scan of each user per day; rollups are cleared so the
+-- startup initializer rebuilds them from the remaining rows
+delete from attendances
+where id not in (select min(id) from attendances group by user_code, attendance_date);
+
+delete from attendance_rollups;
+
+alter table attendances alter column attendance_date set not null;
+
+alter table attendances add constraint uk_attendances_user_date unique (user_code, attendance_date);
@@ -0,0 +1,2 @@
+create index if not exists idx_attendances_timestamp_id on attendances (timestamp, id);
+drop index if exists idx_attendances_timestamp;
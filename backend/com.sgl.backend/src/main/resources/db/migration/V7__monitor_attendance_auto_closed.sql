@@ -0,0 +1,3 @@
+-- Marks shifts closed by the stale shift sweep instead of a check-out tap
+-- (see MonitorShiftSweeper); they are closed at their check-in time.
+alter table "monitor:attendance" add column if not exists auto_closed boolean not null default false;
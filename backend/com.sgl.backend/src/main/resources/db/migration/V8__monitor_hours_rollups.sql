@@ -0,0 +1,16 @@
+-- Minutes worked and completed shifts per monitor and day, so payroll
+-- ranges sum one row per monitor-day instead of every raw shift. Filled on
+-- check-out; RollupInitializer backfills it from
+-- "monitor:attendance" on the first start.
+create table if not exists monitor_hours_rollups (
+    id bigint generated by default as identity,
+    monitor_code varchar(255) not null,
+    work_date date not null,
+    minutes bigint not null,
+    shifts integer not null,
+    primary key (id),
+    constraint uk_monitor_hours_rollups_day unique (monitor_code, work_date),
+    constraint fk_monitor_hours_rollups_monitor foreign key (monitor_code) references users
+);
+
+create index if not exists idx_monitor_hours_rollups_work_date on monitor_hours_rollups (work_date);
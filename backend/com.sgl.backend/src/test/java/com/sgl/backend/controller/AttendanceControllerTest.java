@@ -1,20 +1,25 @@
 package com.sgl.backend.controller;
 
+import com.sgl.backend.dto.AttendancePageResponse;
 import com.sgl.backend.dto.AttendanceReportDTO;
 import com.sgl.backend.dto.AttendanceSummaryDTO;
+import com.sgl.backend.dto.BulkAttendanceResult;
+import com.sgl.backend.dto.BulkAttendanceResult.ScanStatus;
+import com.sgl.backend.dto.OccupancyResponse;
 import com.sgl.backend.entity.Attendance;
 import com.sgl.backend.entity.User;
 import com.sgl.backend.exception.SglException;
 import com.sgl.backend.security.JwtAuthenticationFilter;
 import com.sgl.backend.security.JwtService;
+import com.sgl.backend.service.AttendanceJournal;
 import com.sgl.backend.service.AttendanceService;
+import com.sgl.backend.service.OccupancyFeed;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -22,6 +27,7 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -29,6 +35,10 @@ import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -47,6 +57,12 @@ class AttendanceControllerTest {
         @MockitoBean
         private AttendanceService attendanceService;
 
+        @MockitoBean
+        private AttendanceJournal attendanceJournal;
+
+        @MockitoBean
+        private OccupancyFeed occupancyFeed;
+
         @MockitoBean
         private JwtService jwtService;
 
@@ -65,6 +81,19 @@ class AttendanceControllerTest {
                                 .andExpect(jsonPath("$.user.code").value("12345"));
         }
 
+        @Test
+        @WithMockUser(authorities = "MONITOR")
+        void registerAttendance_journalMode_returns202() throws Exception {
+                when(attendanceJournal.isEnabled()).thenReturn(true);
+                when(attendanceService.journalAttendance("12345")).thenReturn(Attendance.builder()
+                                .user(User.builder().code("12345").build()).timestamp(LocalDateTime.now()).build());
+
+                mockMvc.perform(post("/api/attendances/12345"))
+                                .andExpect(status().isAccepted())
+                                .andExpect(jsonPath("$.user.code").value("12345"));
+                verify(attendanceService, never()).registerAttendance(anyString());
+        }
+
         @Test
         @WithMockUser(authorities = "ADMIN")
         void registerAttendance_duplicate_returns400() throws Exception {
@@ -78,16 +107,42 @@ class AttendanceControllerTest {
                                                 .value("Attendance already registered for user 12345 today"));
         }
 
+        @Test
+        @WithMockUser(authorities = "MONITOR")
+        void registerAttendances_returnsResultPerCode() throws Exception {
+                when(attendanceService.registerAttendances(any())).thenReturn(List.of(
+                                BulkAttendanceResult.builder().code("A1").status(ScanStatus.REGISTERED).build(),
+                                BulkAttendanceResult.builder().code("B1").status(ScanStatus.DUPLICATE).build()));
+
+                mockMvc.perform(post("/api/attendances/bulk")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"scans\":[{\"code\":\"A1\"},{\"code\":\"B1\",\"timestamp\":\"2024-02-05T08:00:00\"}]}"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$[0].status").value("REGISTERED"))
+                                .andExpect(jsonPath("$[1].status").value("DUPLICATE"));
+        }
+
+        @Test
+        @WithMockUser(authorities = "MONITOR")
+        void registerAttendances_emptyBatch_returns400() throws Exception {
+                mockMvc.perform(post("/api/attendances/bulk")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"scans\":[]}"))
+                                .andExpect(status().isBadRequest());
+        }
+
         @Test
         @WithMockUser(authorities = "MONITOR")
         void getAttendances_byUserCode_success() throws Exception {
                 User user = User.builder().code("12345").build();
                 Attendance attendance = Attendance.builder().id(1L).user(user).timestamp(LocalDateTime.now()).build();
-                when(attendanceService.getAttendances(null, null, "12345")).thenReturn(List.of(attendance));
+                when(attendanceService.getAttendances(null, null, "12345", 50, null))
+                                .thenReturn(AttendancePageResponse.builder().items(List.of(attendance)).nextCursor("abc").build());
 
                 mockMvc.perform(get("/api/attendances").param("userCode", "12345"))
                                 .andExpect(status().isOk())
-                                .andExpect(jsonPath("$[0].user.code").value("12345"));
+                                .andExpect(jsonPath("$.items[0].user.code").value("12345"))
+                                .andExpect(jsonPath("$.nextCursor").value("abc"));
         }
 
         @Test
@@ -97,14 +152,17 @@ class AttendanceControllerTest {
                 Attendance attendance = Attendance.builder().id(1L).user(user).timestamp(LocalDateTime.now()).build();
                 LocalDateTime start = LocalDate.now().atStartOfDay();
                 LocalDateTime end = LocalDate.now().atTime(LocalTime.MAX);
-                when(attendanceService.getAttendances(any(LocalDateTime.class), any(LocalDateTime.class), eq(null)))
-                                .thenReturn(List.of(attendance));
+                when(attendanceService.getAttendances(any(LocalDateTime.class), any(LocalDateTime.class), eq(null),
+                                eq(20), eq("abc")))
+                                .thenReturn(AttendancePageResponse.builder().items(List.of(attendance)).build());
 
                 mockMvc.perform(get("/api/attendances")
                                 .param("start", start.toString())
-                                .param("end", end.toString()))
+                                .param("end", end.toString())
+                                .param("size", "20")
+                                .param("cursor", "abc"))
                                 .andExpect(status().isOk())
-                                .andExpect(jsonPath("$[0].user.code").value("12345"));
+                                .andExpect(jsonPath("$.items[0].user.code").value("12345"));
         }
 
         @Test
@@ -118,7 +176,7 @@ class AttendanceControllerTest {
                                 .build();
 
                 when(attendanceService.getMonthlyReport(2024, 1,
-                                PageRequest.of(0, 10, Sort.by("user.name").ascending())))
+                                PageRequest.of(0, 10, Sort.by("userName").ascending())))
                                 .thenReturn(new PageImpl<>(List.of(dto)));
 
                 mockMvc.perform(get("/api/attendances/report")
@@ -143,25 +201,33 @@ class AttendanceControllerTest {
                                 .param("year", "2024")
                                 .param("month", "1"))
                                 .andExpect(status().isOk())
+                                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=3600, private"))
                                 .andExpect(jsonPath("$.totalUsers").value(10))
                                 .andExpect(jsonPath("$.totalAttendances").value(50));
         }
 
         @Test
         @WithMockUser(authorities = "ADMIN")
-        void exportPdf_success() throws Exception {
-                AttendanceReportDTO dto = AttendanceReportDTO.builder()
-                                .userCode("123")
-                                .userName("John")
-                                .userRole("STUDENT")
-                                .totalAttendances(5)
-                                .build();
+        void getMonthlySummary_currentMonth_mustRevalidate() throws Exception {
+                LocalDate today = LocalDate.now();
+                when(attendanceService.getMonthlySummary(today.getYear(), today.getMonthValue()))
+                                .thenReturn(AttendanceSummaryDTO.builder().totalUsers(1).totalAttendances(1).build());
 
-                when(attendanceService.getMonthlyReport(2024, 1, Pageable.unpaged()))
-                                .thenReturn(new PageImpl<>(List.of(dto)));
+                mockMvc.perform(get("/api/attendances/report/summary")
+                                .param("year", String.valueOf(today.getYear()))
+                                .param("month", String.valueOf(today.getMonthValue())))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"));
+        }
 
-                when(attendanceService.generateAttendancePdf(any(), eq(2024), eq(1)))
-                                .thenReturn(new byte[] { 1, 2, 3 });
+        @Test
+        @WithMockUser(authorities = "ADMIN")
+        void exportPdf_success() throws Exception {
+                doAnswer(invocation -> {
+                        OutputStream out = invocation.getArgument(2);
+                        out.write(new byte[] { 1, 2, 3 });
+                        return null;
+                }).when(attendanceService).writeAttendancePdf(eq(2024), eq(1), any(OutputStream.class));
 
                 mockMvc.perform(get("/api/attendances/report/pdf")
                                 .param("year", "2024")
@@ -169,24 +235,18 @@ class AttendanceControllerTest {
                                 .andExpect(status().isOk())
                                 .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
                                                 "attachment; filename=reporte_asistencia_2024_01.pdf"))
-                                .andExpect(content().contentType(MediaType.APPLICATION_PDF));
+                                .andExpect(content().contentType(MediaType.APPLICATION_PDF))
+                                .andExpect(content().bytes(new byte[] { 1, 2, 3 }));
         }
 
         @Test
         @WithMockUser(authorities = "ADMIN")
         void exportCsv_success() throws Exception {
-                AttendanceReportDTO dto = AttendanceReportDTO.builder()
-                                .userCode("123")
-                                .userName("John")
-                                .userRole("STUDENT")
-                                .totalAttendances(5)
-                                .build();
-
-                when(attendanceService.getMonthlyReport(2024, 1, Pageable.unpaged()))
-                                .thenReturn(new PageImpl<>(List.of(dto)));
-
-                when(attendanceService.generateAttendanceCsv(any(), eq(2024)))
-                                .thenReturn("CSV_DATA".getBytes());
+                doAnswer(invocation -> {
+                        OutputStream out = invocation.getArgument(2);
+                        out.write("CSV_DATA".getBytes());
+                        return null;
+                }).when(attendanceService).writeAttendanceCsv(eq(2024), eq(1), any(OutputStream.class));
 
                 mockMvc.perform(get("/api/attendances/report/csv")
                                 .param("year", "2024")
@@ -194,6 +254,19 @@ class AttendanceControllerTest {
                                 .andExpect(status().isOk())
                                 .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
                                                 "attachment; filename=reporte_asistencia_2024_01.csv"))
-                                .andExpect(content().contentType("text/csv"));
+                                .andExpect(content().contentType("text/csv"))
+                                .andExpect(content().string("CSV_DATA"));
+        }
+
+        @Test
+        @WithMockUser(authorities = "MONITOR")
+        void getOccupancy_returnsTodaysCount() throws Exception {
+                when(occupancyFeed.current()).thenReturn(
+                                OccupancyResponse.builder().date(LocalDate.of(2024, 2, 5)).present(12).build());
+
+                mockMvc.perform(get("/api/attendances/occupancy"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.date").value("2024-02-05"))
+                                .andExpect(jsonPath("$.present").value(12));
         }
-}
\ No newline at end of file
+}
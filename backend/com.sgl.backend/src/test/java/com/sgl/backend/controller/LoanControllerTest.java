@@ -1,5 +1,7 @@
 package com.sgl.backend.controller;
 
+import com.sgl.backend.dto.BulkLoanRequest;
+import com.sgl.backend.dto.BulkReturnRequest;
 import com.sgl.backend.dto.LoanRequest;
 import com.sgl.backend.dto.LoanResponse;
 import com.sgl.backend.service.LoanService;
@@ -78,6 +80,36 @@ class LoanControllerTest {
         verify(loanService).returnLoan(1L, "M001");
     }
 
+    @Test
+    void registerBulk_success() {
+        BulkLoanRequest bulk = BulkLoanRequest.builder()
+                .barcodes(List.of("EQ123", "EQ456"))
+                .studentCode("S001")
+                .monitorCode("M001")
+                .build();
+        when(loanService.registerLoans(bulk)).thenReturn(List.of(response, response));
+
+        ResponseEntity<List<LoanResponse>> result = loanController.registerBulk(bulk);
+
+        assertEquals(200, result.getStatusCode().value());
+        assertEquals(2, result.getBody().size());
+        verify(loanService).registerLoans(bulk);
+    }
+
+    @Test
+    void returnBulk_success() {
+        BulkReturnRequest bulk = new BulkReturnRequest();
+        bulk.setLoanIds(List.of(1L, 2L));
+        when(authentication.getName()).thenReturn("M001");
+        when(loanService.returnLoans(List.of(1L, 2L), "M001")).thenReturn(List.of(response, response));
+
+        ResponseEntity<List<LoanResponse>> result = loanController.returnBulk(bulk, authentication);
+
+        assertEquals(200, result.getStatusCode().value());
+        assertEquals(2, result.getBody().size());
+        verify(loanService).returnLoans(List.of(1L, 2L), "M001");
+    }
+
     @Test
     void getMyActiveLoans_success() {
         when(authentication.getName()).thenReturn("S001");
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sgl.backend.dto.AttendanceRequest;
 import com.sgl.backend.dto.AttendanceRequest.AttendanceType;
 import com.sgl.backend.dto.AttendanceResponse;
+import com.sgl.backend.dto.OnDutyResponse;
 import com.sgl.backend.service.MonitorAttendanceService;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -13,18 +14,18 @@ import org.mockito.MockitoAnnotations;
 
 import static org.mockito.ArgumentMatchers.*;
 
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.Pageable;
 import org.springframework.format.support.DefaultFormattingConversionService;
 import org.springframework.http.MediaType;
 
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -73,16 +74,30 @@ class MonitorAttendanceControllerTest {
                                 .andExpect(jsonPath("$.monitorCode").value("M001"));
         }
 
+        @Test
+        void testGetOnDuty() throws Exception {
+                when(service.getOnDuty()).thenReturn(List.of(OnDutyResponse.builder()
+                                .monitorCode("M001")
+                                .monitorName("Juan")
+                                .checkIn(LocalDateTime.of(2024, 1, 10, 8, 0))
+                                .build()));
+
+                mockMvc.perform(get("/api/monitor-attendance/on-duty"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$[0].monitorCode").value("M001"))
+                                .andExpect(jsonPath("$[0].monitorName").value("Juan"));
+        }
+
         @Test
         void testGetReportPdf() throws Exception {
 
                 byte[] pdf = new byte[] { 1, 2, 3 };
 
-                when(service.getReport(any(), any(), any(Pageable.class)))
-                                .thenReturn(new PageImpl<>(List.of()));
-
-                when(service.generateMonitorReportPdf(anyList(), any(), any()))
-                                .thenReturn(pdf);
+                doAnswer(invocation -> {
+                        OutputStream out = invocation.getArgument(2);
+                        out.write(pdf);
+                        return null;
+                }).when(service).writeMonitorReportPdf(any(), any(), any(OutputStream.class));
 
                 mockMvc.perform(get("/api/monitor-attendance/report/pdf")
                                 .param("start", "2024-01-01")
@@ -97,11 +112,11 @@ class MonitorAttendanceControllerTest {
 
                 byte[] csv = "Código,Nombre\nM001,Juan".getBytes();
 
-                when(service.getReport(any(), any(), any(Pageable.class)))
-                                .thenReturn(new PageImpl<>(List.of()));
-
-                when(service.generateMonitorReportCsv(anyList()))
-                                .thenReturn(csv);
+                doAnswer(invocation -> {
+                        OutputStream out = invocation.getArgument(2);
+                        out.write(csv);
+                        return null;
+                }).when(service).writeMonitorReportCsv(any(), any(), any(OutputStream.class));
 
                 mockMvc.perform(get("/api/monitor-attendance/report/csv")
                                 .param("start", "2024-01-01")
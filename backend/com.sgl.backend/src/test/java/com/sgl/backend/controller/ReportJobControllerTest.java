@@ -0,0 +1,95 @@
+package com.sgl.backend.controller;
+
+import com.sgl.backend.dto.ReportJobRequest.ReportFormat;
+import com.sgl.backend.dto.ReportJobRequest.ReportType;
+import com.sgl.backend.dto.ReportJobResponse;
+import com.sgl.backend.dto.ReportJobResponse.JobStatus;
+import com.sgl.backend.exception.SglException;
+import com.sgl.backend.security.JwtAuthenticationFilter;
+import com.sgl.backend.security.JwtService;
+import com.sgl.backend.service.ReportJobService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ReportJobController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class ReportJobControllerTest {
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @MockitoBean
+        private ReportJobService reportJobService;
+
+        @MockitoBean
+        private JwtService jwtService;
+
+        @MockitoBean
+        private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+        @Test
+        @WithMockUser(authorities = "ADMIN")
+        void submit_returnsAccepted() throws Exception {
+                when(reportJobService.submit(any())).thenReturn(job(JobStatus.QUEUED));
+
+                mockMvc.perform(post("/api/reports/jobs")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"type\":\"ATTENDANCE\",\"format\":\"CSV\",\"year\":2024,\"month\":2}"))
+                                .andExpect(status().isAccepted())
+                                .andExpect(jsonPath("$.id").value("job-1"))
+                                .andExpect(jsonPath("$.status").value("QUEUED"));
+        }
+
+        @Test
+        @WithMockUser(authorities = "ADMIN")
+        void download_finishedJob_returnsFile() throws Exception {
+                when(reportJobService.getJob("job-1")).thenReturn(job(JobStatus.DONE));
+                when(reportJobService.getArtifact("job-1")).thenReturn(new ByteArrayResource("a,b".getBytes()));
+
+                mockMvc.perform(get("/api/reports/jobs/job-1/file"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
+                                                "attachment; filename=reporte_asistencia_2024_02.csv"))
+                                .andExpect(content().string("a,b"));
+        }
+
+        @Test
+        @WithMockUser(authorities = "ADMIN")
+        void download_pendingJob_returns409() throws Exception {
+                when(reportJobService.getJob("job-1")).thenReturn(job(JobStatus.RUNNING));
+                when(reportJobService.getArtifact("job-1"))
+                                .thenThrow(new SglException("Report job job-1 is not finished", HttpStatus.CONFLICT));
+
+                mockMvc.perform(get("/api/reports/jobs/job-1/file"))
+                                .andExpect(status().isConflict())
+                                .andExpect(jsonPath("$.message").value("Report job job-1 is not finished"));
+        }
+
+        private ReportJobResponse job(JobStatus status) {
+                return ReportJobResponse.builder()
+                                .id("job-1")
+                                .type(ReportType.ATTENDANCE)
+                                .format(ReportFormat.CSV)
+                                .status(status)
+                                .fileName("reporte_asistencia_2024_02.csv")
+                                .build();
+        }
+}
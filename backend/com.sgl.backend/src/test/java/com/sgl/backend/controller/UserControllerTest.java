@@ -1,5 +1,6 @@
 package com.sgl.backend.controller;
 
+import com.sgl.backend.dto.UserResponse;
 import com.sgl.backend.entity.Role;
 import com.sgl.backend.entity.User;
 import com.sgl.backend.exception.SglException;
@@ -73,13 +74,13 @@ class UserControllerTest {
     @Test
     @WithMockUser(authorities = "ADMIN")
     void getAllUsers_success() throws Exception {
-        Role role = Role.builder().id(1L).name("ESTUDIANTE").build();
-        User user = User.builder().code("12345").role(role).build();
+        UserResponse user = new UserResponse("12345", "Ana", "ana@example.com", "1010", 1L, "ESTUDIANTE");
         when(userService.getAllUsers()).thenReturn(List.of(user));
 
         mockMvc.perform(get("/api/users"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].code").value("12345"))
-                .andExpect(jsonPath("$[0].role.name").value("ESTUDIANTE"));
+                .andExpect(jsonPath("$[0].role.name").value("ESTUDIANTE"))
+                .andExpect(jsonPath("$[0].password").doesNotExist());
     }
 }
@@ -0,0 +1,120 @@
+package com.sgl.backend.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fires concurrent logins against a SIRA stub that answers every call after
+ * a fixed delay, and logs the throughput. Run with {@code mvn test -Pload-test}
+ * on Java 21 and compare the platform and virtual thread variants; tune with
+ * {@code -Dload.logins} and {@code -Dload.sira-latency-ms}.
+ */
+@Slf4j
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.profiles.active=test",
+        "server.tomcat.threads.max=20",
+        "spring.jpa.show-sql=false"
+})
+abstract class AbstractLoginLoadTest {
+
+    private static final int LOGINS = Integer.getInteger("load.logins", 400);
+    private static final long SIRA_LATENCY_MS = Long.getLong("load.sira-latency-ms", 100);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final HttpServer SIRA = startSiraStub();
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void siraProperties(DynamicPropertyRegistry registry) {
+        registry.add("sira.base-url", () -> "http://localhost:" + SIRA.getAddress().getPort());
+    }
+
+    @Test
+    void concurrentLogins() {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newCachedThreadPool())
+                .build();
+
+        login(client, "warmup", 50);
+        long started = System.nanoTime();
+        List<HttpResponse<String>> responses = login(client, getClass().getSimpleName(), LOGINS);
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        log.info("{}: {} logins in {} s ({} logins/s)", getClass().getSimpleName(), LOGINS,
+                String.format("%.2f", seconds), String.format("%.1f", LOGINS / seconds));
+        assertThat(responses).allSatisfy(response -> assertThat(response.statusCode()).isEqualTo(200));
+    }
+
+    private List<HttpResponse<String>> login(HttpClient client, String prefix, int count) {
+        List<CompletableFuture<HttpResponse<String>>> futures = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"code\":\"" + prefix + "-" + i + "\",\"password\":\"secret\"}"))
+                    .build();
+            futures.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+        }
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    private static HttpServer startSiraStub() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.createContext("/auth", exchange -> {
+                JsonNode body = MAPPER.readTree(exchange.getRequestBody());
+                respond(exchange, "{\"token\":\"" + body.get("user").asText() + "\",\"isStudent\":true}");
+            });
+            server.createContext("/student/info", exchange -> {
+                String code = exchange.getRequestHeaders().getFirst("Authorization").substring("Bearer ".length());
+                respond(exchange, "{\"code\":\"" + code + "\",\"name\":\"Load " + code + "\","
+                        + "\"email\":\"" + code + "@correounivalle.edu.co\",\"document\":\"1\"}");
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, String json) throws IOException {
+        try {
+            Thread.sleep(SIRA_LATENCY_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
@@ -0,0 +1,10 @@
+package com.sgl.backend.load;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = {
+        "spring.threads.virtual.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:login-load-platform"
+})
+class PlatformThreadLoginLoadTest extends AbstractLoginLoadTest {
+}
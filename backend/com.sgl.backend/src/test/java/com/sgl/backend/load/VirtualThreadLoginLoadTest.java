@@ -0,0 +1,13 @@
+package com.sgl.backend.load;
+
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.test.context.TestPropertySource;
+
+@EnabledForJreRange(min = JRE.JAVA_21)
+@TestPropertySource(properties = {
+        "spring.threads.virtual.enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:login-load-virtual"
+})
+class VirtualThreadLoginLoadTest extends AbstractLoginLoadTest {
+}
@@ -0,0 +1,180 @@
+package com.sgl.backend.repository;
+
+import com.sgl.backend.dto.AttendanceCursor;
+import com.sgl.backend.entity.Attendance;
+import com.sgl.backend.entity.Role;
+import com.sgl.backend.entity.User;
+import com.sgl.backend.repository.AttendanceRepository.DailyRoleCount;
+import com.sgl.backend.repository.AttendanceRepository.PeriodSummary;
+import com.sgl.backend.repository.AttendanceRepository.UserAttendanceDate;
+import com.sgl.backend.repository.AttendanceRepository.UserMonthlyCount;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class AttendanceRepositoryTest {
+
+    private static final LocalDateTime FEB_2024 = LocalDateTime.of(2024, 2, 1, 0, 0);
+    private static final LocalDateTime MAR_2024 = LocalDateTime.of(2024, 3, 1, 0, 0);
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    private User ana;
+    private User beto;
+
+    @BeforeEach
+    void setUp() {
+        Role role = roleRepository.save(Role.builder().name("ESTUDIANTE").build());
+        ana = userRepository.save(User.builder().code("A1").name("Ana").role(role).build());
+        beto = userRepository.save(User.builder().code("B1").name("Beto").role(role).build());
+
+        attendanceRepository.save(attendance(ana, LocalDateTime.of(2024, 2, 5, 8, 0)));
+        attendanceRepository.save(attendance(ana, LocalDateTime.of(2024, 2, 9, 10, 0)));
+        attendanceRepository.save(attendance(ana, LocalDateTime.of(2024, 2, 12, 14, 0)));
+        attendanceRepository.save(attendance(beto, LocalDateTime.of(2024, 2, 5, 9, 0)));
+        attendanceRepository.save(attendance(beto, LocalDateTime.of(2024, 3, 1, 0, 0)));
+    }
+
+    @Test
+    void countPerUserByYearAndMonth_groupsByUser() {
+        Page<UserMonthlyCount> page = attendanceRepository.countPerUserByPeriod(FEB_2024, MAR_2024,
+                PageRequest.of(0, 10, Sort.by("userName").ascending()));
+
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent()).extracting(UserMonthlyCount::getUserCode).containsExactly("A1", "B1");
+        assertThat(page.getContent()).extracting(UserMonthlyCount::getTotalAttendances).containsExactly(3L, 1L);
+        assertThat(page.getContent().get(0).getUserRole()).isEqualTo("ESTUDIANTE");
+    }
+
+    @Test
+    void streamPerUserByPeriod_ordersByName() {
+        try (Stream<UserMonthlyCount> rows = attendanceRepository.streamPerUserByPeriod(FEB_2024, MAR_2024)) {
+            assertThat(rows.map(UserMonthlyCount::getUserName)).containsExactly("Ana", "Beto");
+        }
+    }
+
+    @Test
+    void findAttendanceDatesByUsersAndPeriod_returnsDistinctDates() {
+        List<UserAttendanceDate> rows = attendanceRepository
+                .findAttendanceDatesByUsersAndPeriod(List.of("A1"), FEB_2024, MAR_2024);
+
+        assertThat(rows).extracting(UserAttendanceDate::getDate)
+                .containsExactlyInAnyOrder(LocalDate.of(2024, 2, 5), LocalDate.of(2024, 2, 9),
+                        LocalDate.of(2024, 2, 12));
+    }
+
+    @Test
+    void countPerDayAndRole_groupsByCalendarDay() {
+        List<DailyRoleCount> rows = attendanceRepository.countPerDayAndRole();
+
+        assertThat(rows).hasSize(4);
+        assertThat(rows).filteredOn(r -> r.getDate().equals(LocalDate.of(2024, 2, 5)))
+                .singleElement()
+                .satisfies(r -> assertThat(r.getTotal()).isEqualTo(2L));
+    }
+
+    @Test
+    void summarizePeriod_aggregatesHalfOpenPeriod() {
+        PeriodSummary summary = attendanceRepository.summarizePeriod(FEB_2024, MAR_2024);
+
+        assertThat(summary.getTotalAttendances()).isEqualTo(4);
+        assertThat(summary.getTotalUsers()).isEqualTo(2);
+        assertThat(summary.getFirstAttendance()).isEqualTo(LocalDate.of(2024, 2, 5));
+        assertThat(summary.getLastAttendance()).isEqualTo(LocalDate.of(2024, 2, 12));
+    }
+
+    @Test
+    void summarizePeriod_emptyPeriod() {
+        PeriodSummary summary = attendanceRepository.summarizePeriod(FEB_2024.minusMonths(1), FEB_2024);
+
+        assertThat(summary.getTotalAttendances()).isZero();
+        assertThat(summary.getFirstAttendance()).isNull();
+    }
+
+    @Test
+    void insertAll_writesEveryRowInOneBatch() {
+        attendanceRepository.insertAll(List.of(
+                attendance(ana, LocalDateTime.of(2024, 4, 1, 8, 0)),
+                attendance(beto, LocalDateTime.of(2024, 4, 1, 8, 1))));
+
+        assertThat(attendanceRepository.findPage(null,
+                LocalDateTime.of(2024, 4, 1, 0, 0), LocalDateTime.of(2024, 4, 2, 0, 0), null, 10))
+                .extracting(a -> a.getUser().getCode())
+                .containsExactlyInAnyOrder("A1", "B1");
+    }
+
+    @Test
+    void save_secondScanSameDay_violatesUniqueKey() {
+        assertThatThrownBy(() -> attendanceRepository.saveAndFlush(
+                attendance(ana, LocalDateTime.of(2024, 2, 5, 17, 0))))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void findUserCodesByAttendanceDate_returnsThatDayOnly() {
+        assertThat(attendanceRepository.findUserCodesByAttendanceDate(LocalDate.of(2024, 2, 5)))
+                .containsExactlyInAnyOrder("A1", "B1");
+    }
+
+    @Test
+    void findPage_seeksNewestFirstFromCursor() {
+        List<Attendance> first = attendanceRepository.findPage(null, null, null, null, 2);
+        List<Attendance> second = attendanceRepository.findPage(null, null, null,
+                AttendanceCursor.after(first.get(1)), 10);
+
+        assertThat(first).extracting(Attendance::getTimestamp)
+                .containsExactly(MAR_2024, LocalDateTime.of(2024, 2, 12, 14, 0));
+        assertThat(second).extracting(Attendance::getTimestamp).containsExactly(
+                LocalDateTime.of(2024, 2, 9, 10, 0),
+                LocalDateTime.of(2024, 2, 5, 9, 0),
+                LocalDateTime.of(2024, 2, 5, 8, 0));
+    }
+
+    @Test
+    void findPage_sameTimestamp_breaksTiesById() {
+        User carla = userRepository.save(User.builder().code("C1").name("Carla").role(ana.getRole()).build());
+        Attendance tied = attendanceRepository.save(attendance(carla, MAR_2024));
+
+        List<Attendance> first = attendanceRepository.findPage(null, null, null, null, 1);
+        List<Attendance> second = attendanceRepository.findPage(null, null, null, AttendanceCursor.after(first.get(0)), 1);
+
+        assertThat(first.get(0).getId()).isEqualTo(tied.getId());
+        assertThat(second.get(0).getUser().getCode()).isEqualTo("B1");
+        assertThat(second.get(0).getTimestamp()).isEqualTo(MAR_2024);
+    }
+
+    @Test
+    void findPage_filtersByUser() {
+        assertThat(attendanceRepository.findPage("B1", null, null, null, 10))
+                .extracting(a -> a.getUser().getCode())
+                .containsOnly("B1")
+                .hasSize(2);
+    }
+
+    private Attendance attendance(User user, LocalDateTime timestamp) {
+        return Attendance.builder().user(user).timestamp(timestamp).build();
+    }
+}
@@ -0,0 +1,35 @@
+package com.sgl.backend.repository;
+
+import com.sgl.backend.entity.AttendanceRollup;
+import com.sgl.backend.entity.AttendanceRollup.Granularity;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class AttendanceRollupRepositoryTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 2, 10);
+
+    @Autowired
+    private AttendanceRollupRepository rollupRepo;
+
+    @Test
+    void increment_createsMissingBucketThenAddsToIt() {
+        rollupRepo.increment(Granularity.DAY, DAY, "ESTUDIANTE", 2);
+        rollupRepo.increment(Granularity.DAY, DAY, "ESTUDIANTE", 3);
+        rollupRepo.increment(Granularity.DAY, DAY, "DOCENTE", 1);
+        rollupRepo.increment(Granularity.MONTH, DAY.withDayOfMonth(1), "ESTUDIANTE", 5);
+
+        assertThat(rollupRepo.findByGranularityAndBucketDateBetween(Granularity.DAY, DAY, DAY))
+                .extracting(AttendanceRollup::getRoleName, AttendanceRollup::getTotal)
+                .containsExactlyInAnyOrder(tuple("ESTUDIANTE", 5L), tuple("DOCENTE", 1L));
+    }
+}
@@ -0,0 +1,75 @@
+package com.sgl.backend.repository;
+
+import com.sgl.backend.entity.Equipment;
+import com.sgl.backend.entity.Equipment.EquipmentStatus;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Equipment stock is written on every checkout and return, so it is kept out
+// of the second-level cache that RoleRepositoryTest covers.
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true"
+})
+@ActiveProfiles("test")
+class EquipmentRepositoryTest {
+
+    @Autowired
+    private EquipmentRepository equipmentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void findByBarcode_isNotServedFromCache() {
+        Equipment equipment = equipmentRepository.save(equipment("EQ-NC"));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        try {
+            equipmentRepository.findByBarcode("EQ-NC");
+            statistics.clear();
+
+            assertTrue(equipmentRepository.findByBarcode("EQ-NC").isPresent());
+            assertEquals(0, statistics.getQueryCacheHitCount());
+            assertEquals(1, statistics.getPrepareStatementCount());
+            assertFalse(entityManagerFactory.getCache().contains(Equipment.class, equipment.getId()));
+        } finally {
+            equipmentRepository.delete(equipment);
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void findByBarcode_seesStockTakenByConditionalUpdate() {
+        Equipment equipment = equipmentRepository.save(equipment("EQ-TAKE"));
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        try {
+            equipmentRepository.findByBarcode("EQ-TAKE");
+            tx.executeWithoutResult(status -> equipmentRepository.takeUnits(equipment.getId(), 1, EquipmentStatus.LOANED));
+
+            Equipment stored = equipmentRepository.findByBarcode("EQ-TAKE").orElseThrow();
+            assertEquals(0, stored.getAvailableUnits());
+            assertEquals(EquipmentStatus.LOANED, stored.getStatus());
+        } finally {
+            equipmentRepository.delete(equipment);
+        }
+    }
+
+    private Equipment equipment(String barcode) {
+        return Equipment.builder().barcode(barcode).name("Camera").totalUnits(1).availableUnits(1).build();
+    }
+}
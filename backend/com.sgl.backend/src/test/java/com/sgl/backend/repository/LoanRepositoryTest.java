@@ -0,0 +1,132 @@
+package com.sgl.backend.repository;
+
+import com.sgl.backend.dto.LoanResponse;
+import com.sgl.backend.entity.Equipment;
+import com.sgl.backend.entity.Equipment.EquipmentStatus;
+import com.sgl.backend.entity.Loan;
+import com.sgl.backend.entity.Loan.LoanStatus;
+import com.sgl.backend.entity.Role;
+import com.sgl.backend.entity.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class LoanRepositoryTest {
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private EquipmentRepository equipmentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private Loan active;
+    private Loan returned;
+    private Equipment camera;
+    private User monitor;
+    private User ana;
+
+    @BeforeEach
+    void setUp() {
+        Role studentRole = persist(Role.builder().name("ESTUDIANTE").build());
+        Role monitorRole = persist(Role.builder().name("MONITOR").build());
+        monitor = persist(User.builder().code("M1").name("Marta").role(monitorRole).build());
+        ana = persist(User.builder().code("A1").name("Ana").role(studentRole).build());
+        User beto = persist(User.builder().code("B1").name("Beto").role(studentRole).build());
+        camera = persist(Equipment.builder().barcode("EQ-1").name("Camera").totalUnits(3).availableUnits(1).build());
+
+        active = persist(loan(camera, ana, monitor, LocalDateTime.of(2024, 2, 5, 8, 0), LoanStatus.ACTIVE));
+        persist(loan(camera, beto, monitor, LocalDateTime.of(2024, 2, 5, 9, 0), LoanStatus.ACTIVE));
+        returned = persist(loan(camera, ana, monitor, LocalDateTime.of(2024, 2, 1, 8, 0), LoanStatus.RETURNED));
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findResponsesByStatus_projectsAssociationsInOneQuery() {
+        List<LoanResponse> loans = loanRepository.findResponsesByStatus(LoanStatus.ACTIVE);
+
+        assertThat(loans).extracting(LoanResponse::getStudentName).containsExactly("Beto", "Ana");
+        assertThat(loans).extracting(LoanResponse::getEquipmentName).containsOnly("Camera");
+        assertThat(loans).extracting(LoanResponse::getMonitorName).containsOnly("Marta");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findResponsesByStudentCodeAndStatus_filtersByStudent() {
+        assertThat(loanRepository.findResponsesByStudentCodeAndStatus("A1", LoanStatus.ACTIVE))
+                .singleElement()
+                .satisfies(loan -> assertThat(loan.getBarcode()).isEqualTo("EQ-1"));
+    }
+
+    @Test
+    void findById_fetchesAssociations() {
+        Loan loan = loanRepository.findById(returned.getId()).orElseThrow();
+
+        assertThat(Hibernate.isInitialized(loan.getEquipment())).isTrue();
+        assertThat(Hibernate.isInitialized(loan.getStudent())).isTrue();
+        assertThat(Hibernate.isInitialized(loan.getMonitor())).isTrue();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void insertAll_assignsGeneratedIds() {
+        List<Loan> loans = List.of(
+                loan(camera, ana, monitor, LocalDateTime.of(2024, 3, 1, 8, 0), LoanStatus.ACTIVE),
+                loan(camera, ana, monitor, LocalDateTime.of(2024, 3, 1, 8, 0), LoanStatus.ACTIVE));
+
+        loanRepository.insertAll(loans);
+
+        assertThat(loans).extracting(Loan::getId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(loanRepository.findResponsesByStudentCodeAndStatus("A1", LoanStatus.ACTIVE)).hasSize(3);
+    }
+
+    @Test
+    void markReturned_skipsLoansAlreadyReturned() {
+        int updated = loanRepository.markReturned(List.of(active.getId(), returned.getId()),
+                LocalDateTime.of(2024, 3, 1, 8, 0), LoanStatus.ACTIVE, LoanStatus.RETURNED);
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(loanRepository.findById(active.getId()).orElseThrow().getStatus()).isEqualTo(LoanStatus.RETURNED);
+    }
+
+    @Test
+    void takeUnits_neverOversells() {
+        assertThat(equipmentRepository.takeUnits(camera.getId(), 2, EquipmentStatus.LOANED)).isZero();
+        assertThat(equipmentRepository.takeUnits(camera.getId(), 1, EquipmentStatus.LOANED)).isEqualTo(1);
+        assertThat(equipmentRepository.returnUnits(camera.getId(), 4, EquipmentStatus.AVAILABLE)).isZero();
+
+        Equipment stored = equipmentRepository.findById(camera.getId()).orElseThrow();
+        assertThat(stored.getAvailableUnits()).isZero();
+        assertThat(stored.getStatus()).isEqualTo(EquipmentStatus.LOANED);
+    }
+
+    private <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+
+    private Loan loan(Equipment equipment, User student, User monitor, LocalDateTime at, LoanStatus status) {
+        return Loan.builder().equipment(equipment).student(student).monitor(monitor)
+                .loanDateTime(at).status(status).build();
+    }
+}
@@ -0,0 +1,105 @@
+package com.sgl.backend.repository;
+
+import com.sgl.backend.entity.MonitorAttendance;
+import com.sgl.backend.entity.Role;
+import com.sgl.backend.entity.User;
+import com.sgl.backend.repository.MonitorAttendanceRepository.MonitorShiftRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class MonitorAttendanceRepositoryTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 1, 10);
+
+    @Autowired
+    private MonitorAttendanceRepository attendanceRepo;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    private User juan;
+
+    @BeforeEach
+    void setUp() {
+        Role monitorRole = roleRepository.save(Role.builder().name("MONITOR").build());
+        Role studentRole = roleRepository.save(Role.builder().name("ESTUDIANTE").build());
+        juan = userRepository.save(User.builder().code("M001").name("Juan").role(monitorRole).build());
+        userRepository.save(User.builder().code("M002").name("Ana").role(monitorRole).build());
+        userRepository.save(User.builder().code("E001").name("Eva").role(studentRole).build());
+
+        attendanceRepo.save(MonitorAttendance.builder().monitor(juan).date(DAY)
+                .checkIn(DAY.atTime(8, 0)).checkOut(DAY.atTime(10, 0)).build());
+        attendanceRepo.save(MonitorAttendance.builder().monitor(juan).date(DAY.plusMonths(1))
+                .checkIn(DAY.plusMonths(1).atTime(8, 0)).build());
+    }
+
+    @Test
+    void streamClosedShifts_skipsOpenShifts() {
+        List<MonitorShiftRow> rows;
+        try (Stream<MonitorShiftRow> stream = attendanceRepo.streamClosedShifts()) {
+            rows = stream.toList();
+        }
+
+        assertThat(rows).singleElement().satisfies(row -> {
+            assertThat(row.getMonitorCode()).isEqualTo("M001");
+            assertThat(row.getDate()).isEqualTo(DAY);
+        });
+    }
+
+    @Test
+    void findShiftsByMonitorsAndPeriod_returnsOnlyRequestedMonitorsInRange() {
+        List<MonitorAttendance> shifts = attendanceRepo.findShiftsByMonitorsAndPeriod(
+                List.of("M001", "M002"), DAY, DAY.plusDays(1));
+
+        assertThat(shifts).singleElement().satisfies(shift -> {
+            assertThat(shift.getMonitor().getName()).isEqualTo("Juan");
+            assertThat(shift.getDate()).isEqualTo(DAY);
+        });
+    }
+
+    @Test
+    void findOpenShifts_returnsShiftsWithoutCheckOutThatDay() {
+        assertThat(attendanceRepo.findOpenShifts(DAY.plusMonths(1)))
+                .singleElement()
+                .satisfies(shift -> assertThat(shift.getMonitor().getCode()).isEqualTo("M001"));
+        assertThat(attendanceRepo.findOpenShifts(DAY)).isEmpty();
+    }
+
+    @Test
+    void closeShift_closesOnlyOnce() {
+        MonitorAttendance open = attendanceRepo.findOpenShifts(DAY.plusMonths(1)).get(0);
+        LocalDateTime checkOut = DAY.plusMonths(1).atTime(12, 0);
+
+        assertThat(attendanceRepo.closeShift(open.getId(), checkOut)).isEqualTo(1);
+        assertThat(attendanceRepo.closeShift(open.getId(), checkOut.plusHours(1))).isZero();
+        assertThat(attendanceRepo.findById(open.getId()).orElseThrow().getCheckOut()).isEqualTo(checkOut);
+    }
+
+    @Test
+    void autoCloseShifts_closesAtCheckInAndFlags() {
+        List<MonitorAttendance> stale = attendanceRepo.findOpenShiftsCheckedInBefore(DAY.plusMonths(1).atTime(9, 0));
+        assertThat(stale).singleElement();
+
+        assertThat(attendanceRepo.autoCloseShifts(List.of(stale.get(0).getId()))).isEqualTo(1);
+
+        MonitorAttendance closed = attendanceRepo.findById(stale.get(0).getId()).orElseThrow();
+        assertThat(closed.isAutoClosed()).isTrue();
+        assertThat(closed.getCheckOut()).isEqualTo(closed.getCheckIn());
+        assertThat(attendanceRepo.findOpenShiftsCheckedInBefore(DAY.plusMonths(2).atStartOfDay())).isEmpty();
+    }
+}
@@ -0,0 +1,77 @@
+package com.sgl.backend.repository;
+
+import com.sgl.backend.entity.MonitorHoursRollup;
+import com.sgl.backend.entity.Role;
+import com.sgl.backend.entity.User;
+import com.sgl.backend.repository.MonitorHoursRollupRepository.MonitorHoursTotal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class MonitorHoursRollupRepositoryTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 1, 10);
+
+    @Autowired
+    private MonitorHoursRollupRepository rollupRepo;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @BeforeEach
+    void setUp() {
+        Role monitorRole = roleRepository.save(Role.builder().name("MONITOR").build());
+        Role studentRole = roleRepository.save(Role.builder().name("ESTUDIANTE").build());
+        userRepository.save(User.builder().code("M001").name("Juan").role(monitorRole).build());
+        userRepository.save(User.builder().code("M002").name("Ana").role(monitorRole).build());
+        userRepository.save(User.builder().code("E001").name("Eva").role(studentRole).build());
+
+        rollupRepo.save(rollup("M001", DAY, 120));
+        rollupRepo.save(rollup("M001", DAY.plusDays(1), 90));
+        rollupRepo.save(rollup("M001", DAY.plusMonths(1), 60));
+    }
+
+    @Test
+    void streamTotalsByPeriod_sumsRangeAndKeepsMonitorsWithoutShifts() {
+        List<MonitorHoursTotal> totals;
+        try (Stream<MonitorHoursTotal> stream = rollupRepo.streamTotalsByPeriod(DAY, DAY.plusDays(5))) {
+            totals = stream.toList();
+        }
+
+        assertThat(totals)
+                .extracting(MonitorHoursTotal::getMonitorCode, MonitorHoursTotal::getDaysWorked,
+                        MonitorHoursTotal::getMinutesWorked)
+                .containsExactly(tuple("M002", 0L, 0L), tuple("M001", 2L, 210L));
+    }
+
+    @Test
+    void increment_addsToExistingDayAndCreatesMissingOne() {
+        rollupRepo.increment("M001", DAY, 30, 1);
+        rollupRepo.increment("M002", DAY, 45, 1);
+
+        try (Stream<MonitorHoursTotal> stream = rollupRepo.streamTotalsByPeriod(DAY, DAY)) {
+            assertThat(stream)
+                    .extracting(MonitorHoursTotal::getMonitorCode, MonitorHoursTotal::getDaysWorked,
+                            MonitorHoursTotal::getMinutesWorked)
+                    .containsExactly(tuple("M002", 1L, 45L), tuple("M001", 1L, 150L));
+        }
+    }
+
+    private MonitorHoursRollup rollup(String code, LocalDate date, long minutes) {
+        return MonitorHoursRollup.builder().monitorCode(code).workDate(date).minutes(minutes).shifts(1).build();
+    }
+}
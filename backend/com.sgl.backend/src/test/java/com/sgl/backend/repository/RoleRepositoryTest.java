@@ -1,18 +1,34 @@
 package com.sgl.backend.repository;
 
 import com.sgl.backend.entity.Role;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
 import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 
-@DataJpaTest
+// The second-level cache is off in the test profile because JCache shares
+// one cache manager between the cached test contexts; it is enabled here only.
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true"
+})
+@ActiveProfiles("test")
 class RoleRepositoryTest {
 
     @Autowired
     private RoleRepository roleRepository;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @Test
     void findByName_existingRole_returnsRole() {
         Role role = new Role();
@@ -29,4 +45,38 @@ class RoleRepositoryTest {
         Optional<Role> found = roleRepository.findByName("NOT_EXISTING");
         assertTrue(found.isEmpty());
     }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void findByName_repeatedLookup_isServedFromCache() {
+        Role role = roleRepository.save(Role.builder().name("CACHED").build());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        try {
+            roleRepository.findByName("CACHED");
+            statistics.clear();
+
+            assertTrue(roleRepository.findByName("CACHED").isPresent());
+            assertEquals(1, statistics.getQueryCacheHitCount());
+            assertEquals(0, statistics.getPrepareStatementCount());
+        } finally {
+            roleRepository.delete(role);
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void save_invalidatesCachedLookups() {
+        Role role = roleRepository.save(Role.builder().name("BEFORE").build());
+        try {
+            assertTrue(roleRepository.findByName("BEFORE").isPresent());
+
+            role.setName("AFTER");
+            role = roleRepository.save(role);
+
+            assertTrue(roleRepository.findByName("BEFORE").isEmpty());
+            assertEquals(role.getId(), roleRepository.findByName("AFTER").orElseThrow().getId());
+        } finally {
+            roleRepository.delete(role);
+        }
+    }
 }
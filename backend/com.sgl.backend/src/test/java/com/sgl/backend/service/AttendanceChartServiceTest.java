@@ -0,0 +1,64 @@
+package com.sgl.backend.service;
+
+import com.itextpdf.text.Document;
+import com.itextpdf.text.Image;
+import com.itextpdf.text.pdf.PdfWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AttendanceChartServiceTest {
+
+    private final AttendanceChartService chartService = new AttendanceChartService();
+
+    @Test
+    void monthlyChart_isVectorTemplate() throws Exception {
+        Document document = new Document();
+        PdfWriter writer = PdfWriter.getInstance(document, new ByteArrayOutputStream());
+        document.open();
+
+        Image chart = chartService.monthlyChart(writer, 2024, new int[] { 5, 3, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0 });
+        document.add(chart);
+
+        assertThat(chart.getTemplateData()).isNotNull();
+        assertThat(chart.getScaledWidth()).isLessThanOrEqualTo(500);
+        document.close();
+    }
+
+    @Test
+    void renderedChart_sameData_reusesCachedRendering() {
+        int[] counts = { 5, 3, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0 };
+
+        byte[] first = chartService.renderedChart(2024, counts);
+        byte[] second = chartService.renderedChart(2024, counts.clone());
+
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void renderedChart_changedData_rendersAgain() {
+        int[] counts = { 5, 3, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0 };
+
+        byte[] first = chartService.renderedChart(2024, counts);
+        counts[2] = 1;
+        byte[] second = chartService.renderedChart(2024, counts);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(chartService.renderedChart(2024, counts)).isSameAs(second);
+    }
+
+    @Test
+    void monthlyChart_allZero_doesNotFail() throws Exception {
+        Document document = new Document();
+        PdfWriter writer = PdfWriter.getInstance(document, new ByteArrayOutputStream());
+        document.open();
+
+        Image chart = chartService.monthlyChart(writer, 2024, new int[12]);
+        document.add(chart);
+
+        assertThat(chart).isNotNull();
+        document.close();
+    }
+}
@@ -0,0 +1,117 @@
+package com.sgl.backend.service;
+
+import com.sgl.backend.dto.BulkAttendanceRequest;
+import com.sgl.backend.service.AttendanceJournal.Batch;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AttendanceJournalTest {
+
+    private static final LocalDateTime SCAN_TIME = LocalDateTime.of(2024, 2, 5, 8, 0);
+
+    @TempDir
+    Path dir;
+
+    private AttendanceJournal journal;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        journal = new AttendanceJournal(true, dir);
+        journal.open();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        journal.close();
+    }
+
+    @Test
+    void readPending_returnsAppendedScansInOrder() throws Exception {
+        journal.append("A1", SCAN_TIME);
+        journal.append("B1", SCAN_TIME.plusMinutes(1));
+
+        Batch batch = journal.readPending(10);
+
+        assertThat(batch.scans()).extracting(BulkAttendanceRequest.Scan::getCode).containsExactly("A1", "B1");
+        assertThat(batch.scans().get(1).getTimestamp()).isEqualTo(SCAN_TIME.plusMinutes(1));
+    }
+
+    @Test
+    void readPending_respectsBatchSize() throws Exception {
+        journal.append("A1", SCAN_TIME);
+        journal.append("B1", SCAN_TIME);
+        journal.append("C1", SCAN_TIME);
+
+        Batch first = journal.readPending(2);
+        journal.commit(first.endOffset());
+        Batch second = journal.readPending(2);
+
+        assertThat(first.scans()).hasSize(2);
+        assertThat(second.scans()).extracting(BulkAttendanceRequest.Scan::getCode).containsExactly("C1");
+    }
+
+    @Test
+    void pendingBytes_tracksUncommittedScans() throws Exception {
+        journal.append("A1", SCAN_TIME);
+        journal.append("B1", SCAN_TIME);
+        long total = journal.pendingBytes();
+
+        journal.commit(journal.readPending(1).endOffset());
+
+        assertThat(journal.pendingBytes()).isPositive().isLessThan(total);
+        journal.commit(journal.readPending(10).endOffset());
+        assertThat(journal.pendingBytes()).isZero();
+    }
+
+    @Test
+    void commit_fullyDrained_truncatesJournal() throws Exception {
+        journal.append("A1", SCAN_TIME);
+
+        journal.commit(journal.readPending(10).endOffset());
+
+        assertThat(Files.size(dir.resolve("scans.log"))).isZero();
+        assertThat(journal.readPending(10).scans()).isEmpty();
+    }
+
+    @Test
+    void open_afterRestart_resumesFromCommittedOffset() throws Exception {
+        journal.append("A1", SCAN_TIME);
+        journal.append("B1", SCAN_TIME);
+        journal.commit(journal.readPending(1).endOffset());
+        journal.close();
+
+        AttendanceJournal restarted = new AttendanceJournal(true, dir);
+        restarted.open();
+        try {
+            assertThat(restarted.readPending(10).scans())
+                    .extracting(BulkAttendanceRequest.Scan::getCode)
+                    .containsExactly("B1");
+        } finally {
+            restarted.close();
+        }
+    }
+
+    @Test
+    void open_discardsPartiallyWrittenLine() throws Exception {
+        journal.append("A1", SCAN_TIME);
+        journal.close();
+        Files.writeString(dir.resolve("scans.log"), "B1\t2024-02", StandardOpenOption.APPEND);
+
+        journal = new AttendanceJournal(true, dir);
+        journal.open();
+        journal.append("C1", SCAN_TIME);
+
+        assertThat(journal.readPending(10).scans())
+                .extracting(BulkAttendanceRequest.Scan::getCode)
+                .containsExactly("A1", "C1");
+    }
+}
@@ -0,0 +1,126 @@
+package com.sgl.backend.service;
+
+import com.sgl.backend.dto.BulkAttendanceRequest;
+import com.sgl.backend.dto.BulkAttendanceResult;
+import com.sgl.backend.dto.BulkAttendanceResult.ScanStatus;
+import com.sgl.backend.service.AttendanceJournal.Batch;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AttendanceJournalWriterTest {
+
+    @Mock
+    private AttendanceJournal journal;
+
+    @Mock
+    private AttendanceService attendanceService;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private AttendanceJournalWriter writer;
+
+    @Test
+    void drain_storesBatchThenCommitsOffset() throws Exception {
+        BulkAttendanceRequest.Scan ana = scan("A1");
+        BulkAttendanceRequest.Scan unknown = scan("X9");
+        when(journal.isEnabled()).thenReturn(true);
+        when(journal.readPending(anyInt()))
+                .thenReturn(new Batch(List.of(ana, unknown), 0L, 40L))
+                .thenReturn(new Batch(List.of(), 0L, 0L));
+        when(attendanceService.registerAttendances(List.of(ana, unknown))).thenReturn(List.of(
+                BulkAttendanceResult.builder().code("A1").status(ScanStatus.REGISTERED).build(),
+                BulkAttendanceResult.builder().code("X9").status(ScanStatus.REJECTED).message("not found").build()));
+
+        int stored = writer.drain();
+
+        assertThat(stored).isEqualTo(1);
+        verify(journal).reject(unknown, "not found");
+        verify(journal).commit(40L);
+    }
+
+    @Test
+    void drain_databaseFailure_keepsScansForRetry() throws Exception {
+        when(journal.isEnabled()).thenReturn(true);
+        when(journal.readPending(anyInt())).thenReturn(new Batch(List.of(scan("A1")), 0L, 20L));
+        when(attendanceService.registerAttendances(anyList())).thenThrow(new QueryTimeoutException("stalled"));
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(writer.drain()).isZero();
+        }
+        verify(attendanceService, times(5)).registerAttendances(anyList());
+        verify(journal, never()).commit(anyLong());
+        verify(journal, never()).reject(any(), any());
+    }
+
+    @Test
+    void drain_batchKeepsFailing_rejectsOnlyTheBadScan() throws Exception {
+        BulkAttendanceRequest.Scan ana = scan("A1");
+        BulkAttendanceRequest.Scan bad = scan("B1");
+        Batch batch = new Batch(List.of(ana, bad), 0L, 40L);
+        when(journal.isEnabled()).thenReturn(true);
+        when(journal.readPending(anyInt())).thenReturn(batch, batch, batch, new Batch(List.of(), 0L, 0L));
+        when(attendanceService.registerAttendances(List.of(ana, bad)))
+                .thenThrow(new DataIntegrityViolationException("bad row"));
+        when(attendanceService.registerAttendances(List.of(ana))).thenReturn(List.of(
+                BulkAttendanceResult.builder().code("A1").status(ScanStatus.REGISTERED).build()));
+        when(attendanceService.registerAttendances(List.of(bad)))
+                .thenThrow(new DataIntegrityViolationException("bad row"));
+
+        assertThat(writer.drain()).isZero();
+        assertThat(writer.drain()).isZero();
+        verify(journal, never()).commit(anyLong());
+
+        assertThat(writer.drain()).isEqualTo(1);
+        verify(journal).reject(bad, "bad row");
+        verify(journal, never()).reject(eq(ana), any());
+        verify(journal).commit(40L);
+    }
+
+    @Test
+    void drain_opacUnavailable_keepsBatchPending() throws Exception {
+        BulkAttendanceRequest.Scan ana = scan("A1");
+        BulkAttendanceRequest.Scan unknown = scan("X9");
+        when(journal.isEnabled()).thenReturn(true);
+        when(journal.readPending(anyInt())).thenReturn(new Batch(List.of(ana, unknown), 0L, 40L));
+        when(attendanceService.registerAttendances(List.of(ana, unknown))).thenReturn(List.of(
+                BulkAttendanceResult.builder().code("A1").status(ScanStatus.REGISTERED).build(),
+                BulkAttendanceResult.builder().code("X9").status(ScanStatus.DEFERRED).build()));
+
+        writer.drain();
+
+        verify(journal, never()).reject(any(), any());
+        verify(journal, never()).commit(anyLong());
+    }
+
+    @Test
+    void drain_disabled_doesNothing() {
+        assertThat(writer.drain()).isZero();
+        verifyNoInteractions(attendanceService);
+    }
+
+    private BulkAttendanceRequest.Scan scan(String code) {
+        BulkAttendanceRequest.Scan scan = new BulkAttendanceRequest.Scan();
+        scan.setCode(code);
+        scan.setTimestamp(LocalDateTime.of(2024, 2, 5, 8, 0));
+        return scan;
+    }
+}
@@ -0,0 +1,125 @@
+package com.sgl.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AttendancePartitionServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private AttendancePartitionService service;
+
+    @TempDir
+    Path archiveDir;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "archiveDir", archiveDir);
+    }
+
+    @Test
+    void maintain_notPostgres_doesNothing() {
+        when(jdbcTemplate.execute(ArgumentMatchers.<ConnectionCallback<String>>any())).thenReturn("H2");
+
+        service.maintain();
+
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void maintain_createsComingMonths() {
+        givenPartitionedPostgres();
+
+        service.maintain();
+
+        YearMonth current = YearMonth.now();
+        verify(jdbcTemplate, times(4)).execute(startsWith("CREATE TABLE IF NOT EXISTS attendances_y"));
+        verify(jdbcTemplate).execute(contains("FOR VALUES FROM ('" + current.atDay(1) + "')"));
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(String.class));
+    }
+
+    @Test
+    void maintain_archivesAndDropsExpiredMonths() throws IOException, SQLException {
+        givenPartitionedPostgres();
+        ReflectionTestUtils.setField(service, "retentionMonths", 12);
+        YearMonth expired = YearMonth.now().minusMonths(12);
+        YearMonth kept = YearMonth.now().minusMonths(11);
+        String expiredName = String.format("attendances_y%dm%02d", expired.getYear(), expired.getMonthValue());
+        String keptName = String.format("attendances_y%dm%02d", kept.getYear(), kept.getMonthValue());
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class)))
+                .thenReturn(List.of("attendances_default", expiredName, keptName));
+
+        service.maintain();
+
+        Path archive = archiveDir.resolve(String.format("attendances_%d_%02d.csv.gz",
+                expired.getYear(), expired.getMonthValue()));
+        assertThat(archive).exists();
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(archive))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8))
+                    .startsWith("id,user_code,timestamp,attendance_date");
+        }
+        ArgumentCaptor<PreparedStatementCreator> export = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        verify(jdbcTemplate).query(export.capture(), any(RowCallbackHandler.class));
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(connection.prepareStatement(startsWith("SELECT id, user_code, timestamp, attendance_date FROM "
+                + expiredName))).thenReturn(statement);
+        export.getValue().createPreparedStatement(connection);
+        verify(statement).setFetchSize(anyInt());
+        verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+        verify(jdbcTemplate).execute("DROP TABLE " + expiredName);
+        verify(jdbcTemplate, never()).execute("DROP TABLE " + keptName);
+        verify(jdbcTemplate, never()).execute("DROP TABLE attendances_default");
+    }
+
+    private void givenPartitionedPostgres() {
+        when(jdbcTemplate.execute(ArgumentMatchers.<ConnectionCallback<String>>any())).thenReturn("PostgreSQL");
+        when(jdbcTemplate.queryForObject(contains("pg_partitioned_table"), eq(Integer.class))).thenReturn(1);
+    }
+}
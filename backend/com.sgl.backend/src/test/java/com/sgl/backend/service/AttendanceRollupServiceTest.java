@@ -0,0 +1,122 @@
+package com.sgl.backend.service;
+
+import com.sgl.backend.entity.Attendance;
+import com.sgl.backend.entity.AttendanceRollup;
+import com.sgl.backend.entity.AttendanceRollup.Granularity;
+import com.sgl.backend.entity.Role;
+import com.sgl.backend.entity.User;
+import com.sgl.backend.repository.AttendanceRepository;
+import com.sgl.backend.repository.AttendanceRepository.DailyRoleCount;
+import com.sgl.backend.repository.AttendanceRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AttendanceRollupServiceTest {
+
+    @Mock
+    private AttendanceRollupRepository rollupRepo;
+
+    @Mock
+    private AttendanceRepository attendanceRepo;
+
+    @InjectMocks
+    private AttendanceRollupService rollupService;
+
+    @Test
+    void recordAttendance_incrementsDayAndMonth() {
+        LocalDate day = LocalDate.of(2024, 2, 10);
+
+        rollupService.recordAttendance(day.atTime(9, 30), "ESTUDIANTE");
+
+        verify(rollupRepo).increment(Granularity.DAY, day, "ESTUDIANTE", 1L);
+        verify(rollupRepo).increment(Granularity.MONTH, LocalDate.of(2024, 2, 1), "ESTUDIANTE", 1L);
+    }
+
+    @Test
+    void recordAttendances_incrementsEachBucketOnce() {
+        Role student = Role.builder().name("ESTUDIANTE").build();
+        User user = User.builder().code("A1").role(student).build();
+
+        rollupService.recordAttendances(List.of(
+                Attendance.builder().user(user).timestamp(LocalDateTime.of(2024, 2, 10, 8, 0)).build(),
+                Attendance.builder().user(user).timestamp(LocalDateTime.of(2024, 2, 10, 8, 5)).build(),
+                Attendance.builder().user(user).timestamp(LocalDateTime.of(2024, 2, 11, 8, 0)).build()));
+
+        verify(rollupRepo).increment(Granularity.DAY, LocalDate.of(2024, 2, 10), "ESTUDIANTE", 2L);
+        verify(rollupRepo).increment(Granularity.DAY, LocalDate.of(2024, 2, 11), "ESTUDIANTE", 1L);
+        verify(rollupRepo).increment(Granularity.MONTH, LocalDate.of(2024, 2, 1), "ESTUDIANTE", 3L);
+        verify(rollupRepo, times(3)).increment(any(), any(), anyString(), anyLong());
+    }
+
+    @Test
+    void getMonthlyTotals_sumsRolesPerMonth() {
+        when(rollupRepo.findByGranularityAndBucketDateBetween(
+                Granularity.MONTH, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 1)))
+                .thenReturn(List.of(
+                        rollup(Granularity.MONTH, LocalDate.of(2024, 1, 1), "ESTUDIANTE", 4L),
+                        rollup(Granularity.MONTH, LocalDate.of(2024, 1, 1), "DOCENTE", 1L),
+                        rollup(Granularity.MONTH, LocalDate.of(2024, 3, 1), "ESTUDIANTE", 2L)));
+
+        int[] totals = rollupService.getMonthlyTotals(2024);
+
+        assertThat(totals).hasSize(12);
+        assertThat(totals[0]).isEqualTo(5);
+        assertThat(totals[1]).isZero();
+        assertThat(totals[2]).isEqualTo(2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebuild_replacesRollupsFromAttendances() {
+        DailyRoleCount first = dailyCount(LocalDate.of(2024, 2, 5), "ESTUDIANTE", 3L);
+        DailyRoleCount second = dailyCount(LocalDate.of(2024, 2, 6), "ESTUDIANTE", 2L);
+        when(attendanceRepo.findEarliestAttendanceDate()).thenReturn(LocalDate.of(2024, 2, 5));
+        when(attendanceRepo.countPerDayAndRole()).thenReturn(List.of(first, second));
+
+        int rows = rollupService.rebuild();
+
+        ArgumentCaptor<List<AttendanceRollup>> captor = ArgumentCaptor.forClass(List.class);
+        verify(rollupRepo).deleteFromBucketDate(LocalDate.of(2024, 2, 1));
+        verify(rollupRepo).saveAll(captor.capture());
+        assertThat(rows).isEqualTo(3);
+        assertThat(captor.getValue())
+                .filteredOn(r -> r.getGranularity() == Granularity.MONTH)
+                .singleElement()
+                .satisfies(r -> assertThat(r.getTotal()).isEqualTo(5L));
+    }
+
+    @Test
+    void rebuild_withoutAttendances_keepsArchivedRollups() {
+        when(attendanceRepo.findEarliestAttendanceDate()).thenReturn(null);
+
+        assertThat(rollupService.rebuild()).isZero();
+
+        verify(rollupRepo, never()).deleteFromBucketDate(any());
+        verify(rollupRepo, never()).saveAll(any());
+    }
+
+    private AttendanceRollup rollup(Granularity granularity, LocalDate bucket, String role, long total) {
+        return AttendanceRollup.builder().granularity(granularity).bucketDate(bucket).roleName(role).total(total)
+                .build();
+    }
+
+    private DailyRoleCount dailyCount(LocalDate date, String role, long total) {
+        DailyRoleCount row = mock(DailyRoleCount.class);
+        when(row.getDate()).thenReturn(date);
+        when(row.getRoleName()).thenReturn(role);
+        when(row.getTotal()).thenReturn(total);
+        return row;
+    }
+}
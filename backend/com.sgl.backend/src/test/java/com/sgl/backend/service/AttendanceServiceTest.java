@@ -4,26 +4,43 @@ import com.sgl.backend.entity.Attendance;
 import com.sgl.backend.entity.Role;
 import com.sgl.backend.entity.User;
 import com.sgl.backend.exception.SglException;
+import com.sgl.backend.dto.AttendanceCursor;
+import com.sgl.backend.dto.AttendancePageResponse;
 import com.sgl.backend.dto.AttendanceReportDTO;
 import com.sgl.backend.dto.AttendanceSummaryDTO;
+import com.sgl.backend.dto.BulkAttendanceRequest;
+import com.sgl.backend.dto.BulkAttendanceResult;
+import com.sgl.backend.dto.BulkAttendanceResult.ScanStatus;
 import com.sgl.backend.dto.OpacUserInfo;
 import com.sgl.backend.repository.AttendanceRepository;
+import com.sgl.backend.repository.AttendanceRepository.PeriodSummary;
+import com.sgl.backend.repository.AttendanceRepository.UserAttendanceDate;
+import com.sgl.backend.repository.AttendanceRepository.UserMonthlyCount;
 import com.sgl.backend.repository.RoleRepository;
 import com.sgl.backend.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -35,6 +52,9 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class AttendanceServiceTest {
 
+    private static final LocalDateTime FEB_2024 = LocalDateTime.of(2024, 2, 1, 0, 0);
+    private static final LocalDateTime MAR_2024 = LocalDateTime.of(2024, 3, 1, 0, 0);
+
     @Mock
     private AttendanceRepository attendanceRepository;
 
@@ -47,6 +67,21 @@ class AttendanceServiceTest {
     @Mock
     private OpacService opacService;
 
+    @Mock
+    private AttendanceRollupService rollupService;
+
+    @Spy
+    private AttendanceChartService chartService = new AttendanceChartService();
+
+    @Mock
+    private DailyAttendanceIndex attendanceIndex;
+
+    @Mock
+    private AttendanceJournal attendanceJournal;
+
+    @Spy
+    private ReportCache reportCache = new ReportCache(new SimpleMeterRegistry());
+
     @InjectMocks
     private AttendanceService attendanceService;
 
@@ -54,17 +89,15 @@ class AttendanceServiceTest {
     void registerAttendance_existingUser_success() {
         User user = User.builder().code("12345").role(Role.builder().name("ESTUDIANTE").build()).build();
         when(userRepository.findById("12345")).thenReturn(Optional.of(user));
-        LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
-        LocalDateTime endOfDay = LocalDate.now().atTime(LocalTime.MAX);
-        when(attendanceRepository.findByUserAndTimestampBetween(user, startOfDay, endOfDay))
-                .thenReturn(Optional.empty());
         Attendance attendance = Attendance.builder().id(1L).user(user).timestamp(LocalDateTime.now()).build();
-        when(attendanceRepository.save(any(Attendance.class))).thenReturn(attendance);
+        when(attendanceRepository.saveAndFlush(any(Attendance.class))).thenReturn(attendance);
 
         Attendance result = attendanceService.registerAttendance("12345");
 
         assertThat(result.getUser().getCode()).isEqualTo("12345");
-        verify(attendanceRepository).save(any(Attendance.class));
+        verify(attendanceRepository).saveAndFlush(argThat(a -> LocalDate.now().equals(a.getAttendanceDate())));
+        verify(rollupService).recordAttendance(any(LocalDateTime.class), eq("ESTUDIANTE"));
+        verify(attendanceIndex).markAttended("12345", LocalDate.now());
     }
 
     @Test
@@ -76,66 +109,187 @@ class AttendanceServiceTest {
         when(opacService.fetchUserInfo("12345")).thenReturn(opacInfo);
         when(roleRepository.findByName("ESTUDIANTE")).thenReturn(Optional.of(role));
         when(userRepository.save(any(User.class))).thenReturn(user);
-        LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
-        LocalDateTime endOfDay = LocalDate.now().atTime(LocalTime.MAX);
-        when(attendanceRepository.findByUserAndTimestampBetween(any(User.class), eq(startOfDay), eq(endOfDay)))
-                .thenReturn(Optional.empty());
         Attendance attendance = Attendance.builder().id(1L).user(user).timestamp(LocalDateTime.now()).build();
-        when(attendanceRepository.save(any(Attendance.class))).thenReturn(attendance);
+        when(attendanceRepository.saveAndFlush(any(Attendance.class))).thenReturn(attendance);
 
         Attendance result = attendanceService.registerAttendance("12345");
 
         assertThat(result.getUser().getCode()).isEqualTo("12345");
         verify(userRepository).save(any(User.class));
-        verify(attendanceRepository).save(any(Attendance.class));
+        verify(attendanceRepository).saveAndFlush(any(Attendance.class));
     }
 
     @Test
-    void registerAttendance_duplicate_throwsException() {
-        User user = User.builder().code("12345").role(Role.builder().name("ESTUDIANTE").build()).build();
-        when(userRepository.findById("12345")).thenReturn(Optional.of(user));
-        LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
-        LocalDateTime endOfDay = LocalDate.now().atTime(LocalTime.MAX);
-        when(attendanceRepository.findByUserAndTimestampBetween(user, startOfDay, endOfDay))
-                .thenReturn(Optional.of(Attendance.builder().build()));
+    void registerAttendance_alreadyInDailyIndex_skipsDatabase() {
+        when(attendanceIndex.contains("12345", LocalDate.now())).thenReturn(true);
 
         assertThrows(SglException.class, () -> attendanceService.registerAttendance("12345"),
                 "Attendance already registered for user 12345 today");
+        verifyNoInteractions(userRepository, attendanceRepository, rollupService);
+    }
+
+    @Test
+    void registerAttendance_uniqueKeyViolation_throwsDuplicate() {
+        User user = User.builder().code("12345").role(Role.builder().name("ESTUDIANTE").build()).build();
+        when(userRepository.findById("12345")).thenReturn(Optional.of(user));
+        when(attendanceRepository.saveAndFlush(any(Attendance.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_attendances_user_date"));
+
+        SglException ex = assertThrows(SglException.class, () -> attendanceService.registerAttendance("12345"));
+
+        assertThat(ex.getMessage()).isEqualTo("Attendance already registered for user 12345 today");
+        verify(attendanceIndex).markAttended("12345", LocalDate.now());
+        verifyNoInteractions(rollupService);
+    }
+
+    @Test
+    void journalAttendance_appendsWithoutTouchingDatabase() {
+        Attendance result = attendanceService.journalAttendance("12345");
+
+        assertThat(result.getId()).isNull();
+        assertThat(result.getUser().getCode()).isEqualTo("12345");
+        verify(attendanceJournal).append(eq("12345"), any(LocalDateTime.class));
+        verify(attendanceIndex).markAttended("12345", LocalDate.now());
+        verifyNoInteractions(userRepository, attendanceRepository, rollupService);
+    }
+
+    @Test
+    void journalAttendance_alreadyAttended_throwsException() {
+        when(attendanceIndex.contains("12345", LocalDate.now())).thenReturn(true);
+
+        assertThrows(SglException.class, () -> attendanceService.journalAttendance("12345"));
+        verifyNoInteractions(attendanceJournal);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void registerAttendances_resolvesUsersOnceAndBatchesInserts() {
+        Role role = Role.builder().name("ESTUDIANTE").build();
+        User ana = User.builder().code("A1").role(role).build();
+        User beto = User.builder().code("B1").role(role).build();
+        LocalDateTime morning = LocalDate.now().atStartOfDay();
+        when(userRepository.findAllById(any())).thenReturn(List.of(ana, beto));
+        UserAttendanceDate existing = mock(UserAttendanceDate.class);
+        when(existing.getUserCode()).thenReturn("B1");
+        when(existing.getDate()).thenReturn(LocalDate.now());
+        when(attendanceRepository.findAttendanceDatesByUsersAndPeriod(any(), any(), any()))
+                .thenReturn(List.of(existing));
+
+        List<BulkAttendanceResult> results = attendanceService.registerAttendances(List.of(
+                scan("A1", morning), scan("A1", null), scan("B1", null),
+                scan("A1", LocalDateTime.now().plusDays(1))));
+
+        assertThat(results).extracting(BulkAttendanceResult::getStatus).containsExactly(
+                ScanStatus.REGISTERED, ScanStatus.DUPLICATE, ScanStatus.DUPLICATE, ScanStatus.REJECTED);
+        ArgumentCaptor<List<Attendance>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(attendanceRepository).insertAll(inserted.capture());
+        assertThat(inserted.getValue()).singleElement()
+                .satisfies(a -> assertThat(a.getTimestamp()).isEqualTo(morning));
+        verify(userRepository, times(1)).findAllById(any());
+        verify(attendanceRepository, times(1)).findAttendanceDatesByUsersAndPeriod(any(), any(), any());
+        verify(rollupService).recordAttendances(inserted.getValue());
+        verify(attendanceRepository, never()).save(any());
+    }
+
+    @Test
+    void registerAttendances_timestampTooOld_rejected() {
+        Role role = Role.builder().name("ESTUDIANTE").build();
+        User ana = User.builder().code("A1").role(role).build();
+        when(userRepository.findAllById(any())).thenReturn(List.of(ana));
+
+        List<BulkAttendanceResult> results = attendanceService.registerAttendances(List.of(
+                scan("A1", LocalDateTime.now().minusDays(8)), scan("A1", LocalDateTime.now().minusDays(2))));
+
+        assertThat(results).extracting(BulkAttendanceResult::getStatus)
+                .containsExactly(ScanStatus.REJECTED, ScanStatus.REGISTERED);
+        assertThat(results.get(0).getMessage()).isEqualTo("Timestamp too old");
+        verify(attendanceRepository).insertAll(argThat(list -> list.size() == 1));
+    }
+
+    @Test
+    void registerAttendances_unknownUser_rejectedWithoutFailingBatch() {
+        Role role = Role.builder().name("ESTUDIANTE").build();
+        User ana = User.builder().code("A1").role(role).build();
+        when(userRepository.findAllById(any())).thenReturn(List.of(ana));
+        when(opacService.fetchUserInfo("X9")).thenThrow(new SglException("OPAC user not found: X9"));
+
+        List<BulkAttendanceResult> results = attendanceService.registerAttendances(List.of(
+                scan("A1", null), scan("X9", null)));
+
+        assertThat(results).extracting(BulkAttendanceResult::getStatus)
+                .containsExactly(ScanStatus.REGISTERED, ScanStatus.REJECTED);
+        assertThat(results.get(1).getMessage()).isEqualTo("OPAC user not found: X9");
+        verify(attendanceRepository).insertAll(argThat(list -> list.size() == 1));
+    }
+
+    @Test
+    void registerAttendances_opacUnavailable_deferredWithoutFailingBatch() {
+        Role role = Role.builder().name("ESTUDIANTE").build();
+        User ana = User.builder().code("A1").role(role).build();
+        when(userRepository.findAllById(any())).thenReturn(List.of(ana));
+        when(opacService.fetchUserInfo("X9")).thenThrow(
+                new SglException("OPAC service unavailable: timeout", HttpStatus.SERVICE_UNAVAILABLE));
+
+        List<BulkAttendanceResult> results = attendanceService.registerAttendances(List.of(
+                scan("A1", null), scan("X9", null)));
+
+        assertThat(results).extracting(BulkAttendanceResult::getStatus)
+                .containsExactly(ScanStatus.REGISTERED, ScanStatus.DEFERRED);
+        verify(attendanceRepository).insertAll(argThat(list -> list.size() == 1));
     }
 
     @Test
     void getAttendances_byUserCode_success() {
         User user = User.builder().code("12345").build();
         Attendance attendance = Attendance.builder().id(1L).user(user).timestamp(LocalDateTime.now()).build();
-        when(attendanceRepository.findByUserCode("12345")).thenReturn(List.of(attendance));
+        when(attendanceRepository.findPage("12345", null, null, null, 51)).thenReturn(List.of(attendance));
 
-        List<Attendance> result = attendanceService.getAttendances(null, null, "12345");
+        AttendancePageResponse result = attendanceService.getAttendances(null, null, "12345", 50, null);
 
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getUser().getCode()).isEqualTo("12345");
+        assertThat(result.getItems()).hasSize(1);
+        assertThat(result.getItems().get(0).getUser().getCode()).isEqualTo("12345");
+        assertThat(result.getNextCursor()).isNull();
     }
 
     @Test
-    void getAttendances_byDateRange_success() {
+    void getAttendances_fullPage_returnsCursorOfLastItem() {
         User user = User.builder().code("12345").build();
-        Attendance attendance = Attendance.builder().id(1L).user(user).timestamp(LocalDateTime.now()).build();
         LocalDateTime start = LocalDate.now().atStartOfDay();
         LocalDateTime end = LocalDate.now().atTime(LocalTime.MAX);
-        when(attendanceRepository.findByTimestampBetween(start, end)).thenReturn(List.of(attendance));
+        Attendance newest = Attendance.builder().id(9L).user(user).timestamp(start.plusHours(3)).build();
+        Attendance older = Attendance.builder().id(4L).user(user).timestamp(start.plusHours(2)).build();
+        Attendance extra = Attendance.builder().id(2L).user(user).timestamp(start.plusHours(1)).build();
+        when(attendanceRepository.findPage(null, start, end, null, 3)).thenReturn(List.of(newest, older, extra));
 
-        List<Attendance> result = attendanceService.getAttendances(start, end, null);
+        AttendancePageResponse result = attendanceService.getAttendances(start, end, null, 2, null);
 
-        assertThat(result).hasSize(1);
+        assertThat(result.getItems()).containsExactly(newest, older);
+        assertThat(AttendanceCursor.decode(result.getNextCursor()))
+                .isEqualTo(new AttendanceCursor(older.getTimestamp(), 4L));
     }
 
     @Test
-    void getAttendancesPerMonth_success() {
-        when(attendanceRepository.countByYearAndMonth(2024, 1)).thenReturn(5);
-        when(attendanceRepository.countByYearAndMonth(2024, 2)).thenReturn(3);
+    void getAttendances_withCursor_seeksPastIt() {
+        AttendanceCursor cursor = new AttendanceCursor(LocalDateTime.of(2024, 2, 5, 8, 0), 42L);
+        when(attendanceRepository.findPage(null, null, null, cursor, 201)).thenReturn(List.of());
 
-        for (int i = 3; i <= 12; i++) {
-            when(attendanceRepository.countByYearAndMonth(2024, i)).thenReturn(0);
-        }
+        AttendancePageResponse result = attendanceService.getAttendances(null, null, "", 1000, cursor.encode());
+
+        assertThat(result.getItems()).isEmpty();
+        verify(attendanceRepository).findPage(null, null, null, cursor, 201);
+    }
+
+    @Test
+    void getAttendances_invalidCursor_throwsException() {
+        assertThrows(SglException.class, () -> attendanceService.getAttendances(null, null, null, 50, "not-a-cursor"));
+    }
+
+    @Test
+    void getAttendancesPerMonth_readsRollups() {
+        int[] totals = new int[12];
+        totals[0] = 5;
+        totals[1] = 3;
+        when(rollupService.getMonthlyTotals(2024)).thenReturn(totals);
 
         int[] result = attendanceService.getAttendancesPerMonth(2024);
 
@@ -143,74 +297,57 @@ class AttendanceServiceTest {
         assertThat(result[1]).isEqualTo(3);
         assertThat(result[2]).isEqualTo(0);
         assertThat(result).hasSize(12);
-
-        verify(attendanceRepository, times(12)).countByYearAndMonth(eq(2024), anyInt());
+        verifyNoInteractions(attendanceRepository);
     }
 
     @Test
     void getMonthlySummary_success() {
-        User u1 = User.builder().code("A").build();
-        User u2 = User.builder().code("B").build();
-
-        Attendance a1 = Attendance.builder()
-                .user(u1)
-                .timestamp(LocalDateTime.of(2024, 2, 5, 10, 0))
-                .build();
-
-        Attendance a2 = Attendance.builder()
-                .user(u2)
-                .timestamp(LocalDateTime.of(2024, 2, 10, 12, 0))
-                .build();
-
-        Page<Attendance> page = new PageImpl<>(List.of(a1, a2));
-
-        when(attendanceRepository.findByYearAndMonth(2024, 2, Pageable.unpaged()))
-                .thenReturn(page);
+        PeriodSummary row = mock(PeriodSummary.class);
+        when(row.getTotalUsers()).thenReturn(2L);
+        when(row.getTotalAttendances()).thenReturn(3L);
+        when(row.getFirstAttendance()).thenReturn(LocalDate.of(2024, 2, 5));
+        when(row.getLastAttendance()).thenReturn(LocalDate.of(2024, 2, 10));
+        when(attendanceRepository.summarizePeriod(FEB_2024, MAR_2024)).thenReturn(row);
 
         AttendanceSummaryDTO summary = attendanceService.getMonthlySummary(2024, 2);
 
         assertThat(summary.getTotalUsers()).isEqualTo(2);
-        assertThat(summary.getTotalAttendances()).isEqualTo(2);
+        assertThat(summary.getTotalAttendances()).isEqualTo(3);
         assertThat(summary.getFirstAttendance()).isEqualTo(LocalDate.of(2024, 2, 5));
         assertThat(summary.getLastAttendance()).isEqualTo(LocalDate.of(2024, 2, 10));
     }
 
     @Test
     void getMonthlySummary_empty() {
-        Page<Attendance> emptyPage = Page.empty();
-
-        when(attendanceRepository.findByYearAndMonth(2024, 3, Pageable.unpaged()))
-                .thenReturn(emptyPage);
+        PeriodSummary row = mock(PeriodSummary.class);
+        when(attendanceRepository.summarizePeriod(MAR_2024, MAR_2024.plusMonths(1))).thenReturn(row);
 
         AttendanceSummaryDTO summary = attendanceService.getMonthlySummary(2024, 3);
 
         assertThat(summary.getTotalUsers()).isEqualTo(0);
         assertThat(summary.getTotalAttendances()).isEqualTo(0);
+        assertThat(summary.getFirstAttendance()).isNull();
     }
 
     @Test
     void getMonthlyReport_success() {
-        User user = User.builder()
-                .code("123")
-                .name("John")
-                .role(Role.builder().name("STUDENT").build())
-                .build();
-
-        Attendance att = Attendance.builder()
-                .timestamp(LocalDateTime.of(2024, 2, 10, 10, 0))
-                .user(user)
-                .build();
-
-        Page<Attendance> page = new org.springframework.data.domain.PageImpl<>(List.of(att));
-
-        when(attendanceRepository.findByYearAndMonth(2024, 2, Pageable.unpaged()))
-                .thenReturn(page);
-
-        when(attendanceRepository.countByUserAndYearMonth("123", 2024, 2))
-                .thenReturn(3L);
-
-        when(attendanceRepository.findByUserCode("123"))
-                .thenReturn(List.of(att));
+        UserMonthlyCount row = mock(UserMonthlyCount.class);
+        when(row.getUserCode()).thenReturn("123");
+        when(row.getUserName()).thenReturn("John");
+        when(row.getUserRole()).thenReturn("STUDENT");
+        when(row.getTotalAttendances()).thenReturn(3L);
+
+        UserAttendanceDate first = mock(UserAttendanceDate.class);
+        when(first.getUserCode()).thenReturn("123");
+        when(first.getDate()).thenReturn(LocalDate.of(2024, 2, 12));
+        UserAttendanceDate second = mock(UserAttendanceDate.class);
+        when(second.getUserCode()).thenReturn("123");
+        when(second.getDate()).thenReturn(LocalDate.of(2024, 2, 10));
+
+        when(attendanceRepository.countPerUserByPeriod(FEB_2024, MAR_2024, Pageable.unpaged()))
+                .thenReturn(new PageImpl<>(List.of(row)));
+        when(attendanceRepository.findAttendanceDatesByPeriod(FEB_2024, MAR_2024))
+                .thenReturn(List.of(first, second));
 
         Page<AttendanceReportDTO> result = attendanceService.getMonthlyReport(2024, 2, Pageable.unpaged());
 
@@ -219,26 +356,44 @@ class AttendanceServiceTest {
         assertThat(dto.getUserCode()).isEqualTo("123");
         assertThat(dto.getUserName()).isEqualTo("John");
         assertThat(dto.getTotalAttendances()).isEqualTo(3);
-        assertThat(dto.getAttendanceDates()).contains(LocalDate.of(2024, 2, 10));
+        assertThat(dto.getAttendanceDates())
+                .containsExactly(LocalDate.of(2024, 2, 10), LocalDate.of(2024, 2, 12));
     }
 
     @Test
-    void generateAttendanceCsv_success() {
-        AttendanceReportDTO dto = AttendanceReportDTO.builder()
-                .userCode("123")
-                .userName("John")
-                .userRole("STUDENT")
-                .totalAttendances(5)
-                .build();
+    void getMonthlyReport_paged_fetchesDatesOnlyForPageUsers() {
+        UserMonthlyCount row = mock(UserMonthlyCount.class);
+        when(row.getUserCode()).thenReturn("123");
+        when(row.getTotalAttendances()).thenReturn(1L);
+        Pageable pageable = PageRequest.of(0, 10);
+
+        when(attendanceRepository.countPerUserByPeriod(FEB_2024, MAR_2024, pageable))
+                .thenReturn(new PageImpl<>(List.of(row), pageable, 1));
+        when(attendanceRepository.findAttendanceDatesByUsersAndPeriod(List.of("123"), FEB_2024, MAR_2024))
+                .thenReturn(List.of());
+
+        Page<AttendanceReportDTO> result = attendanceService.getMonthlyReport(2024, 2, pageable);
+
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.getContent().get(0).getAttendanceDates()).isEmpty();
+        verify(attendanceRepository, never()).findAttendanceDatesByPeriod(any(), any());
+    }
 
-        when(attendanceRepository.countByYearAndMonth(2024, 1)).thenReturn(2);
-        for (int i = 2; i <= 12; i++) {
-            when(attendanceRepository.countByYearAndMonth(2024, i)).thenReturn(0);
-        }
+    @Test
+    void writeAttendanceCsv_success() {
+        UserMonthlyCount row = mock(UserMonthlyCount.class);
+        when(row.getUserCode()).thenReturn("123");
+        when(row.getUserName()).thenReturn("John");
+        when(row.getUserRole()).thenReturn("STUDENT");
+        when(row.getTotalAttendances()).thenReturn(5L);
 
-        byte[] csvBytes = attendanceService.generateAttendanceCsv(List.of(dto), 2024);
+        when(attendanceRepository.streamPerUserByPeriod(FEB_2024, MAR_2024)).thenReturn(Stream.of(row));
+        when(rollupService.getMonthlyTotals(2024)).thenReturn(new int[] { 2, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0 });
 
-        String csv = new String(csvBytes);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        attendanceService.writeAttendanceCsv(2024, 2, out);
+
+        String csv = out.toString(StandardCharsets.UTF_8);
 
         assertThat(csv).contains("123");
         assertThat(csv).contains("John");
@@ -248,18 +403,27 @@ class AttendanceServiceTest {
     }
 
     @Test
-    void generateAttendancePdf_success() {
-        AttendanceReportDTO dto = AttendanceReportDTO.builder()
-                .userCode("123")
-                .userName("John")
-                .userRole("STUDENT")
-                .totalAttendances(5)
-                .build();
+    void writeAttendancePdf_success() {
+        UserMonthlyCount row = mock(UserMonthlyCount.class);
+        when(row.getUserCode()).thenReturn("123");
+        when(row.getUserName()).thenReturn("John");
+        when(row.getUserRole()).thenReturn("STUDENT");
+        when(row.getTotalAttendances()).thenReturn(5L);
+
+        when(attendanceRepository.streamPerUserByPeriod(FEB_2024, MAR_2024)).thenReturn(Stream.of(row));
+        when(rollupService.getMonthlyTotals(2024)).thenReturn(new int[] { 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1 });
 
-        when(attendanceRepository.countByYearAndMonth(anyInt(), anyInt())).thenReturn(1);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        attendanceService.writeAttendancePdf(2024, 2, out);
 
-        byte[] pdfBytes = attendanceService.generateAttendancePdf(List.of(dto), 2024, 2);
+        assertThat(out.toByteArray()).isNotEmpty();
+        assertThat(out.toString(StandardCharsets.ISO_8859_1)).startsWith("%PDF");
+    }
 
-        assertThat(pdfBytes).isNotEmpty();
+    private BulkAttendanceRequest.Scan scan(String code, LocalDateTime timestamp) {
+        BulkAttendanceRequest.Scan scan = new BulkAttendanceRequest.Scan();
+        scan.setCode(code);
+        scan.setTimestamp(timestamp);
+        return scan;
     }
-}
\ No newline at end of file
+}
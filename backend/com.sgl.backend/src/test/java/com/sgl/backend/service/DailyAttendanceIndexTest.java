@@ -0,0 +1,83 @@
+package com.sgl.backend.service;
+
+import com.sgl.backend.repository.AttendanceRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DailyAttendanceIndexTest {
+
+    @Mock
+    private AttendanceRepository attendanceRepository;
+
+    @InjectMocks
+    private DailyAttendanceIndex index;
+
+    @Test
+    void reload_loadsTodaysCodes() {
+        LocalDate today = LocalDate.now();
+        when(attendanceRepository.findUserCodesByAttendanceDate(today)).thenReturn(List.of("A1"));
+
+        index.reload();
+
+        assertThat(index.contains("A1", today)).isTrue();
+        assertThat(index.contains("B1", today)).isFalse();
+        assertThat(index.contains("A1", today.minusDays(1))).isFalse();
+    }
+
+    @Test
+    void markAttended_ignoresOtherDays() {
+        LocalDate today = LocalDate.now();
+        when(attendanceRepository.findUserCodesByAttendanceDate(today)).thenReturn(List.of());
+        index.reload();
+
+        index.markAttended("A1", today);
+        index.markAttended("B1", today.minusDays(1));
+
+        assertThat(index.contains("A1", today)).isTrue();
+        assertThat(index.contains("B1", today.minusDays(1))).isFalse();
+    }
+
+    @Test
+    void markAttended_insideTransaction_waitsForCommit() {
+        LocalDate today = LocalDate.now();
+        when(attendanceRepository.findUserCodesByAttendanceDate(today)).thenReturn(List.of());
+        index.reload();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.markAttended("A1", today);
+            assertThat(index.contains("A1", today)).isFalse();
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+            assertThat(index.contains("A1", today)).isTrue();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void countAttended_countsEachCodeOncePerDay() {
+        LocalDate today = LocalDate.now();
+        when(attendanceRepository.findUserCodesByAttendanceDate(today)).thenReturn(List.of("A1"));
+        index.reload();
+
+        index.markAttended("A1", today);
+        index.markAttended("B1", today);
+        index.markAttended("B1", today);
+
+        assertThat(index.countAttended(today)).isEqualTo(2);
+        assertThat(index.countAttended(today.minusDays(1))).isZero();
+    }
+}
@@ -0,0 +1,182 @@
+package com.sgl.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.TestPropertySource;
+
+import com.sgl.backend.dto.BulkLoanRequest;
+import com.sgl.backend.dto.LoanRequest;
+import com.sgl.backend.dto.LoanResponse;
+import com.sgl.backend.entity.Equipment;
+import com.sgl.backend.entity.Equipment.EquipmentStatus;
+import com.sgl.backend.entity.Role;
+import com.sgl.backend.entity.User;
+import com.sgl.backend.exception.SglException;
+import com.sgl.backend.repository.EquipmentRepository;
+import com.sgl.backend.repository.LoanRepository;
+import com.sgl.backend.repository.RoleRepository;
+import com.sgl.backend.repository.UserRepository;
+
+// Races more checkouts than there are units through the real service and an
+// H2 database, and checks that stock never goes negative or drifts.
+@SpringBootTest(properties = "spring.profiles.active=test")
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:loan-concurrency;LOCK_TIMEOUT=10000")
+class LoanServiceConcurrencyTest {
+
+    private static final int UNITS = 5;
+    private static final int STUDENTS = 20;
+
+    @Autowired
+    private LoanService loanService;
+    @Autowired
+    private LoanRepository loanRepo;
+    @Autowired
+    private EquipmentRepository equipmentRepo;
+    @Autowired
+    private UserRepository userRepo;
+    @Autowired
+    private RoleRepository roleRepo;
+
+    private Equipment equipment;
+
+    @BeforeEach
+    void seed() {
+        Role monitorRole = roleRepo.findByName("MONITOR").orElseThrow();
+        Role studentRole = roleRepo.findByName("ESTUDIANTE").orElseThrow();
+        userRepo.save(User.builder().code("M001").name("Monitor").role(monitorRole).build());
+        for (int i = 0; i < STUDENTS; i++) {
+            userRepo.save(User.builder().code("S" + i).name("Student " + i).role(studentRole).build());
+        }
+        equipment = equipmentRepo.save(Equipment.builder()
+                .barcode("EQ-RACE")
+                .name("Oscilloscope")
+                .totalUnits(UNITS)
+                .availableUnits(UNITS)
+                .build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        loanRepo.deleteAll();
+        equipmentRepo.delete(equipment);
+        userRepo.deleteAllById(IntStream.range(0, STUDENTS).mapToObj(i -> "S" + i).toList());
+        userRepo.deleteById("M001");
+    }
+
+    @Test
+    void concurrentCheckoutsAndReturns_keepStockConsistent() throws Exception {
+        List<Outcome<LoanResponse>> checkouts = race(IntStream.range(0, STUDENTS)
+                .<Callable<LoanResponse>>mapToObj(i -> () -> loanService.registerLoan(LoanRequest.builder()
+                        .monitorCode("M001")
+                        .studentCode("S" + i)
+                        .barcode("EQ-RACE")
+                        .build()))
+                .toList());
+
+        List<LoanResponse> loans = checkouts.stream().filter(o -> o.value != null).map(o -> o.value).toList();
+        assertThat(loans).hasSize(UNITS);
+        assertThat(checkouts).filteredOn(o -> o.error != null)
+                .hasSize(STUDENTS - UNITS)
+                .allSatisfy(o -> assertThat(o.error.getStatus()).isEqualTo(HttpStatus.CONFLICT));
+        assertStock(0, EquipmentStatus.LOANED);
+
+        // Every loan is returned twice at once; only one of each pair may restock.
+        List<Outcome<LoanResponse>> returns = race(loans.stream()
+                .flatMap(loan -> IntStream.range(0, 2)
+                        .<Callable<LoanResponse>>mapToObj(i -> () -> loanService.returnLoan(loan.getId(), "M001")))
+                .toList());
+
+        assertThat(returns).filteredOn(o -> o.value != null).hasSize(UNITS);
+        assertThat(returns).filteredOn(o -> o.error != null)
+                .hasSize(UNITS)
+                .allSatisfy(o -> assertThat(o.error.getMessage()).contains("already been returned"));
+        assertStock(UNITS, EquipmentStatus.AVAILABLE);
+    }
+
+    @Test
+    void overlappingCarts_reserveAllOrNothing() throws Exception {
+        Equipment tripod = equipmentRepo.save(Equipment.builder()
+                .barcode("EQ-TRIPOD")
+                .name("Tripod")
+                .totalUnits(1)
+                .availableUnits(1)
+                .build());
+        try {
+            // Every cart wants the only tripod plus one oscilloscope, listed in
+            // alternating order: one cart wins and the losers leave stock untouched.
+            List<Outcome<List<LoanResponse>>> carts = race(IntStream.range(0, STUDENTS)
+                    .<Callable<List<LoanResponse>>>mapToObj(i -> () -> loanService.registerLoans(
+                            BulkLoanRequest.builder()
+                                    .barcodes(i % 2 == 0 ? List.of("EQ-TRIPOD", "EQ-RACE") : List.of("EQ-RACE", "EQ-TRIPOD"))
+                                    .studentCode("S" + i)
+                                    .monitorCode("M001")
+                                    .build()))
+                    .toList());
+
+            assertThat(carts).filteredOn(o -> o.value != null).singleElement()
+                    .satisfies(o -> assertThat(o.value).hasSize(2));
+            assertThat(carts).filteredOn(o -> o.error != null)
+                    .allSatisfy(o -> assertThat(o.error.getStatus()).isEqualTo(HttpStatus.CONFLICT));
+            assertStock(equipment, UNITS - 1, EquipmentStatus.AVAILABLE);
+            assertStock(tripod, 0, EquipmentStatus.LOANED);
+        } finally {
+            loanRepo.deleteAll();
+            equipmentRepo.delete(tripod);
+        }
+    }
+
+    private void assertStock(int available, EquipmentStatus status) {
+        assertStock(equipment, available, status);
+    }
+
+    private void assertStock(Equipment equipment, int available, EquipmentStatus status) {
+        Equipment stored = equipmentRepo.findById(equipment.getId()).orElseThrow();
+        assertThat(stored.getAvailableUnits()).isEqualTo(available);
+        assertThat(stored.getStatus()).isEqualTo(status);
+    }
+
+    // Starts every task at the same instant and collects results and service errors.
+    private <T> List<Outcome<T>> race(List<Callable<T>> tasks) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(tasks.size());
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Outcome<T>>> futures = new ArrayList<>();
+            for (Callable<T> task : tasks) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        return new Outcome<T>(task.call(), null);
+                    } catch (SglException e) {
+                        return new Outcome<T>(null, e);
+                    }
+                }));
+            }
+            start.countDown();
+            List<Outcome<T>> outcomes = new ArrayList<>();
+            for (Future<Outcome<T>> future : futures) {
+                outcomes.add(future.get());
+            }
+            return outcomes;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private record Outcome<T>(T value, SglException error) {
+    }
+}
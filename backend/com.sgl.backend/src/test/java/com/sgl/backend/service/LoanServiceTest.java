@@ -2,6 +2,8 @@ package com.sgl.backend.service;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -15,7 +17,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpStatus;
 
+import com.sgl.backend.dto.BulkLoanRequest;
 import com.sgl.backend.dto.LoanRequest;
 import com.sgl.backend.dto.LoanResponse;
 import com.sgl.backend.entity.Equipment;
@@ -89,8 +93,8 @@ class LoanServiceTest {
                 .status(Loan.LoanStatus.ACTIVE)
                 .build();
 
+        when(equipmentRepo.takeUnits(10L, 1, Equipment.EquipmentStatus.LOANED)).thenReturn(1);
         when(loanRepo.save(any(Loan.class))).thenReturn(loan);
-        when(equipmentRepo.save(any(Equipment.class))).thenReturn(equipment);
 
         LoanResponse response = loanService.registerLoan(request);
 
@@ -101,7 +105,20 @@ class LoanServiceTest {
         assertEquals(Loan.LoanStatus.ACTIVE, response.getStatus());
 
         verify(loanRepo).save(any(Loan.class));
-        verify(equipmentRepo).save(any(Equipment.class));
+        verify(equipmentRepo, never()).save(any(Equipment.class));
+    }
+
+    @Test
+    void registerLoan_lastUnitTakenConcurrently() {
+        when(userRepo.findById(monitor.getCode())).thenReturn(Optional.of(monitor));
+        when(userRepo.findById(student.getCode())).thenReturn(Optional.of(student));
+        when(equipmentRepo.findByBarcode(equipment.getBarcode())).thenReturn(Optional.of(equipment));
+        when(equipmentRepo.takeUnits(10L, 1, Equipment.EquipmentStatus.LOANED)).thenReturn(0);
+
+        SglException ex = assertThrows(SglException.class, () -> loanService.registerLoan(request));
+        assertEquals(HttpStatus.CONFLICT, ex.getStatus());
+        assertTrue(ex.getMessage().contains("has no available units"));
+        verify(loanRepo, never()).save(any(Loan.class));
     }
 
     @Test
@@ -159,6 +176,7 @@ class LoanServiceTest {
 
         SglException ex = assertThrows(SglException.class, () -> loanService.registerLoan(request));
         assertTrue(ex.getMessage().contains("has no available units"));
+        verify(equipmentRepo, never()).takeUnits(any(), anyInt(), any());
     }
 
     @Test
@@ -174,8 +192,9 @@ class LoanServiceTest {
 
         when(userRepo.findById(monitor.getCode())).thenReturn(Optional.of(monitor));
         when(loanRepo.findById(loan.getId())).thenReturn(Optional.of(loan));
-        when(loanRepo.save(any(Loan.class))).thenReturn(loan);
-        when(equipmentRepo.save(any(Equipment.class))).thenReturn(equipment);
+        when(loanRepo.markReturned(eq(List.of(100L)), any(LocalDateTime.class), eq(Loan.LoanStatus.ACTIVE),
+                eq(Loan.LoanStatus.RETURNED))).thenReturn(1);
+        when(equipmentRepo.returnUnits(10L, 1, Equipment.EquipmentStatus.AVAILABLE)).thenReturn(1);
 
         LoanResponse response = loanService.returnLoan(loan.getId(), monitor.getCode());
 
@@ -183,8 +202,31 @@ class LoanServiceTest {
         assertEquals(Loan.LoanStatus.RETURNED, response.getStatus());
         assertNotNull(response.getReturnDateTime());
 
-        verify(loanRepo).save(any(Loan.class));
-        verify(equipmentRepo).save(any(Equipment.class));
+        verify(equipmentRepo).returnUnits(10L, 1, Equipment.EquipmentStatus.AVAILABLE);
+        verify(loanRepo, never()).save(any(Loan.class));
+    }
+
+    @Test
+    void returnLoan_returnedConcurrently() {
+        Loan loan = Loan.builder()
+                .id(100L)
+                .equipment(equipment)
+                .student(student)
+                .monitor(monitor)
+                .status(Loan.LoanStatus.ACTIVE)
+                .loanDateTime(LocalDateTime.now())
+                .build();
+
+        when(userRepo.findById(monitor.getCode())).thenReturn(Optional.of(monitor));
+        when(loanRepo.findById(loan.getId())).thenReturn(Optional.of(loan));
+        when(loanRepo.markReturned(eq(List.of(100L)), any(LocalDateTime.class), eq(Loan.LoanStatus.ACTIVE),
+                eq(Loan.LoanStatus.RETURNED))).thenReturn(0);
+
+        SglException ex = assertThrows(SglException.class,
+                () -> loanService.returnLoan(loan.getId(), monitor.getCode()));
+
+        assertTrue(ex.getMessage().contains("already been returned"));
+        verify(equipmentRepo, never()).returnUnits(any(), anyInt(), any());
     }
 
     @Test
@@ -233,6 +275,112 @@ class LoanServiceTest {
         assertTrue(ex.getMessage().contains("already been returned"));
     }
 
+    @Test
+    void registerLoans_validatesUsersOnceAndTakesUnitsPerEquipment() {
+        Equipment tripod = Equipment.builder().id(5L).name("Tripod").barcode("EQ456").availableUnits(1).build();
+        when(userRepo.findById(monitor.getCode())).thenReturn(Optional.of(monitor));
+        when(userRepo.findById(student.getCode())).thenReturn(Optional.of(student));
+        when(equipmentRepo.findAllByBarcodeIn(List.of("EQ123", "EQ456", "EQ123"))).thenReturn(List.of(equipment, tripod));
+        when(equipmentRepo.takeUnits(5L, 1, Equipment.EquipmentStatus.LOANED)).thenReturn(1);
+        when(equipmentRepo.takeUnits(10L, 2, Equipment.EquipmentStatus.LOANED)).thenReturn(1);
+
+        List<LoanResponse> responses = loanService.registerLoans(BulkLoanRequest.builder()
+                .barcodes(List.of("EQ123", "EQ456", "EQ123"))
+                .studentCode(student.getCode())
+                .monitorCode(monitor.getCode())
+                .build());
+
+        assertEquals(List.of("Camera", "Tripod", "Camera"),
+                responses.stream().map(LoanResponse::getEquipmentName).toList());
+        var inOrder = inOrder(equipmentRepo);
+        inOrder.verify(equipmentRepo).takeUnits(5L, 1, Equipment.EquipmentStatus.LOANED);
+        inOrder.verify(equipmentRepo).takeUnits(10L, 2, Equipment.EquipmentStatus.LOANED);
+        verify(loanRepo).insertAll(argThat(loans -> loans.size() == 3));
+        verify(userRepo, times(2)).findById(any());
+    }
+
+    @Test
+    void registerLoans_unknownBarcode() {
+        when(userRepo.findById(monitor.getCode())).thenReturn(Optional.of(monitor));
+        when(userRepo.findById(student.getCode())).thenReturn(Optional.of(student));
+        when(equipmentRepo.findAllByBarcodeIn(List.of("EQ123", "NOPE"))).thenReturn(List.of(equipment));
+
+        SglException ex = assertThrows(SglException.class, () -> loanService.registerLoans(BulkLoanRequest.builder()
+                .barcodes(List.of("EQ123", "NOPE"))
+                .studentCode(student.getCode())
+                .monitorCode(monitor.getCode())
+                .build()));
+
+        assertEquals(HttpStatus.NOT_FOUND, ex.getStatus());
+        assertTrue(ex.getMessage().contains("NOPE"));
+        verify(equipmentRepo, never()).takeUnits(any(), anyInt(), any());
+    }
+
+    @Test
+    void registerLoans_shortageFailsWholeCart() {
+        when(userRepo.findById(monitor.getCode())).thenReturn(Optional.of(monitor));
+        when(userRepo.findById(student.getCode())).thenReturn(Optional.of(student));
+        when(equipmentRepo.findAllByBarcodeIn(anyList())).thenReturn(List.of(equipment));
+
+        SglException ex = assertThrows(SglException.class, () -> loanService.registerLoans(BulkLoanRequest.builder()
+                .barcodes(List.of("EQ123", "EQ123", "EQ123"))
+                .studentCode(student.getCode())
+                .monitorCode(monitor.getCode())
+                .build()));
+
+        assertEquals(HttpStatus.CONFLICT, ex.getStatus());
+        assertTrue(ex.getMessage().contains("fewer than 3 available units"));
+        verify(loanRepo, never()).insertAll(any());
+    }
+
+    @Test
+    void returnLoans_returnsAllAndRestocksPerEquipment() {
+        Loan first = Loan.builder().id(1L).equipment(equipment).student(student).monitor(monitor)
+                .status(Loan.LoanStatus.ACTIVE).build();
+        Loan second = Loan.builder().id(2L).equipment(equipment).student(student).monitor(monitor)
+                .status(Loan.LoanStatus.ACTIVE).build();
+        when(userRepo.findById(monitor.getCode())).thenReturn(Optional.of(monitor));
+        when(loanRepo.findAllById(any())).thenReturn(List.of(second, first));
+        when(loanRepo.markReturned(any(), any(LocalDateTime.class), eq(Loan.LoanStatus.ACTIVE),
+                eq(Loan.LoanStatus.RETURNED))).thenReturn(2);
+        when(equipmentRepo.returnUnits(10L, 2, Equipment.EquipmentStatus.AVAILABLE)).thenReturn(1);
+
+        List<LoanResponse> responses = loanService.returnLoans(List.of(1L, 2L, 1L), monitor.getCode());
+
+        assertEquals(List.of(1L, 2L), responses.stream().map(LoanResponse::getId).toList());
+        assertTrue(responses.stream().allMatch(r -> r.getStatus() == Loan.LoanStatus.RETURNED));
+        verify(equipmentRepo).returnUnits(10L, 2, Equipment.EquipmentStatus.AVAILABLE);
+    }
+
+    @Test
+    void returnLoans_oneAlreadyReturned() {
+        Loan active = Loan.builder().id(1L).equipment(equipment).student(student).monitor(monitor)
+                .status(Loan.LoanStatus.ACTIVE).build();
+        Loan returned = Loan.builder().id(2L).equipment(equipment).student(student).monitor(monitor)
+                .status(Loan.LoanStatus.RETURNED).build();
+        when(userRepo.findById(monitor.getCode())).thenReturn(Optional.of(monitor));
+        when(loanRepo.findAllById(any())).thenReturn(List.of(active, returned));
+
+        SglException ex = assertThrows(SglException.class,
+                () -> loanService.returnLoans(List.of(1L, 2L), monitor.getCode()));
+
+        assertTrue(ex.getMessage().contains("already been returned"));
+        verify(loanRepo, never()).markReturned(any(), any(), any(), any());
+        verify(equipmentRepo, never()).returnUnits(any(), anyInt(), any());
+    }
+
+    @Test
+    void returnLoans_unknownLoan() {
+        when(userRepo.findById(monitor.getCode())).thenReturn(Optional.of(monitor));
+        when(loanRepo.findAllById(any())).thenReturn(List.of());
+
+        SglException ex = assertThrows(SglException.class,
+                () -> loanService.returnLoans(List.of(7L), monitor.getCode()));
+
+        assertEquals(HttpStatus.NOT_FOUND, ex.getStatus());
+        assertTrue(ex.getMessage().contains("Loan not found: 7"));
+    }
+
     @Test
     void getMyActiveLoans_successful() {
         Loan loan = Loan.builder()
@@ -245,14 +393,14 @@ class LoanServiceTest {
                 .build();
 
         when(userRepo.existsByCodeAndRole_Name(eq(student.getCode()), eq("ESTUDIANTE"))).thenReturn(true);
-        when(loanRepo.findByStudentCodeAndStatus(student.getCode(), Loan.LoanStatus.ACTIVE))
-                .thenReturn(List.of(loan));
+        when(loanRepo.findResponsesByStudentCodeAndStatus(student.getCode(), Loan.LoanStatus.ACTIVE))
+                .thenReturn(List.of(response(loan)));
 
         var result = loanService.getMyActiveLoans(student.getCode());
 
         assertEquals(1, result.size());
         assertEquals("Camera", result.get(0).getEquipmentName());
-        verify(loanRepo).findByStudentCodeAndStatus(student.getCode(), Loan.LoanStatus.ACTIVE);
+        verify(loanRepo).findResponsesByStudentCodeAndStatus(student.getCode(), Loan.LoanStatus.ACTIVE);
     }
 
     @Test
@@ -276,12 +424,18 @@ class LoanServiceTest {
                 .loanDateTime(LocalDateTime.now())
                 .build();
 
-        when(loanRepo.findByStatus(Loan.LoanStatus.ACTIVE)).thenReturn(List.of(loan1));
+        when(loanRepo.findResponsesByStatus(Loan.LoanStatus.ACTIVE)).thenReturn(List.of(response(loan1)));
 
         var result = loanService.getAllActiveLoans();
 
         assertEquals(1, result.size());
         assertEquals(Loan.LoanStatus.ACTIVE, result.get(0).getStatus());
-        verify(loanRepo).findByStatus(Loan.LoanStatus.ACTIVE);
+        verify(loanRepo).findResponsesByStatus(Loan.LoanStatus.ACTIVE);
+    }
+
+    private LoanResponse response(Loan loan) {
+        return new LoanResponse(loan.getId(), loan.getEquipment().getName(), loan.getEquipment().getBarcode(),
+                loan.getStudent().getName(), loan.getMonitor().getName(), loan.getLoanDateTime(),
+                loan.getReturnDateTime(), loan.getStatus());
     }
 }
@@ -5,10 +5,12 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.ByteArrayOutputStream;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Stream;
 
 import com.sgl.backend.dto.AttendanceResponse;
 import com.sgl.backend.dto.MonitorReportResponse;
@@ -18,13 +20,17 @@ import com.sgl.backend.entity.Role;
 import com.sgl.backend.entity.User;
 import com.sgl.backend.exception.SglException;
 import com.sgl.backend.repository.MonitorAttendanceRepository;
+import com.sgl.backend.repository.MonitorHoursRollupRepository.MonitorHoursTotal;
 import com.sgl.backend.repository.RoleRepository;
 import com.sgl.backend.repository.UserRepository;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.*;
+import org.springframework.http.HttpStatus;
 
 class MonitorAttendanceServiceTest {
 
@@ -37,6 +43,15 @@ class MonitorAttendanceServiceTest {
         @Mock
         private RoleRepository roleRepo;
 
+        @Mock
+        private OnDutyRegistry onDutyRegistry;
+
+        @Mock
+        private MonitorHoursRollupService hoursRollupService;
+
+        @Spy
+        private ReportCache reportCache = new ReportCache(new SimpleMeterRegistry());
+
         @InjectMocks
         private MonitorAttendanceService service;
 
@@ -70,6 +85,25 @@ class MonitorAttendanceServiceTest {
                 assertNotNull(resp.getCheckIn());
                 assertNull(resp.getCheckOut());
                 assertEquals("IN_PROGRESS", resp.getStatus());
+                verify(onDutyRegistry).opened(any(MonitorAttendance.class));
+        }
+
+        @Test
+        void testCheckInConflictsWhenConcurrentTapOpenedShift() {
+                AttendanceRequest req = new AttendanceRequest();
+                req.setMonitorCode("M001");
+                req.setType(AttendanceRequest.AttendanceType.CHECK_IN);
+
+                when(userRepo.findById("M001")).thenReturn(Optional.of(monitor));
+                when(attendanceRepo.findFirstByMonitorCodeAndDateOrderByCheckInDesc(eq("M001"), any()))
+                                .thenReturn(Optional.empty());
+                when(attendanceRepo.saveAndFlush(any()))
+                                .thenThrow(new DataIntegrityViolationException("uk_monitor_attendance_open_shift"));
+
+                SglException ex = assertThrows(SglException.class, () -> service.registerAttendance(req));
+
+                assertEquals(HttpStatus.CONFLICT, ex.getStatus());
+                verifyNoInteractions(onDutyRegistry);
         }
 
         @Test
@@ -106,12 +140,40 @@ class MonitorAttendanceServiceTest {
                 when(userRepo.findById("M001")).thenReturn(Optional.of(monitor));
                 when(attendanceRepo.findFirstByMonitorCodeAndDateOrderByCheckInDesc(eq("M001"), any()))
                                 .thenReturn(Optional.of(last));
+                when(attendanceRepo.closeShift(any(), any())).thenReturn(1);
 
                 AttendanceResponse resp = service.registerAttendance(req);
 
                 assertNotNull(resp.getCheckOut());
                 assertEquals("COMPLETED", resp.getStatus());
                 assertTrue(resp.getHoursWorked() > 1.9);
+                verify(onDutyRegistry).closed("M001");
+                verify(hoursRollupService).recordShift(eq("M001"), eq(LocalDate.now()), longThat(m -> m >= 119));
+        }
+
+        @Test
+        void testCheckOutConflictsWhenConcurrentTapClosedShift() {
+                AttendanceRequest req = new AttendanceRequest();
+                req.setMonitorCode("M001");
+                req.setType(AttendanceRequest.AttendanceType.CHECK_OUT);
+
+                MonitorAttendance last = MonitorAttendance.builder()
+                                .id(7L)
+                                .monitor(monitor)
+                                .date(LocalDate.now())
+                                .checkIn(LocalDateTime.now().minusHours(2))
+                                .build();
+
+                when(userRepo.findById("M001")).thenReturn(Optional.of(monitor));
+                when(attendanceRepo.findFirstByMonitorCodeAndDateOrderByCheckInDesc(eq("M001"), any()))
+                                .thenReturn(Optional.of(last));
+                when(attendanceRepo.closeShift(eq(7L), any())).thenReturn(0);
+
+                SglException ex = assertThrows(SglException.class, () -> service.registerAttendance(req));
+
+                assertEquals(HttpStatus.CONFLICT, ex.getStatus());
+                assertNull(last.getCheckOut());
+                verifyNoInteractions(onDutyRegistry, hoursRollupService);
         }
 
         @Test
@@ -173,7 +235,7 @@ class MonitorAttendanceServiceTest {
                                 .checkOut(LocalDateTime.now())
                                 .build();
 
-                when(attendanceRepo.findByMonitorCodeAndDateBetween(eq("M001"), eq(start), eq(end)))
+                when(attendanceRepo.findShiftsByMonitorsAndPeriod(eq(List.of("M001")), eq(start), eq(end)))
                                 .thenReturn(List.of(r1));
 
                 Page<MonitorReportResponse> page = service.getReport(start, end, PageRequest.of(0, 10));
@@ -187,6 +249,51 @@ class MonitorAttendanceServiceTest {
                 assertTrue(rep.getTotalHoursWorked() >= 1.9);
         }
 
+        @Test
+        void testGetReportGroupsShiftsFromOneQuery() {
+                LocalDate day = LocalDate.of(2024, 1, 10);
+                Role role = Role.builder().name("MONITOR").build();
+                User other = User.builder().code("M002").name("Ana").role(role).build();
+
+                when(roleRepo.findByName("MONITOR")).thenReturn(Optional.of(role));
+                when(userRepo.findByRole(eq(role), any(Pageable.class))).thenReturn(
+                                new PageImpl<>(List.of(monitor, other)));
+                when(attendanceRepo.findShiftsByMonitorsAndPeriod(List.of("M001", "M002"), day, day))
+                                .thenReturn(List.of(
+                                                MonitorAttendance.builder().monitor(other).date(day)
+                                                                .checkIn(day.atTime(8, 0)).checkOut(day.atTime(9, 30)).build(),
+                                                MonitorAttendance.builder().monitor(other).date(day)
+                                                                .checkIn(day.atTime(14, 0)).checkOut(day.atTime(15, 0)).build()));
+
+                Page<MonitorReportResponse> page = service.getReport(day, day, PageRequest.of(0, 10));
+
+                assertEquals(0, page.getContent().get(0).getTotalDaysWorked());
+                assertEquals(0.0, page.getContent().get(0).getTotalHoursWorked());
+                assertEquals(1, page.getContent().get(1).getTotalDaysWorked());
+                assertEquals(2.5, page.getContent().get(1).getTotalHoursWorked());
+                assertEquals(2, page.getContent().get(1).getAttendances().size());
+                verify(attendanceRepo, times(1)).findShiftsByMonitorsAndPeriod(any(), any(), any());
+        }
+
+        @Test
+        void testGetReportMarksAutoClosedShifts() {
+                LocalDate day = LocalDate.of(2024, 1, 10);
+                Role role = Role.builder().name("MONITOR").build();
+
+                when(roleRepo.findByName("MONITOR")).thenReturn(Optional.of(role));
+                when(userRepo.findByRole(eq(role), any(Pageable.class))).thenReturn(new PageImpl<>(List.of(monitor)));
+                when(attendanceRepo.findShiftsByMonitorsAndPeriod(List.of("M001"), day, day)).thenReturn(List.of(
+                                MonitorAttendance.builder().monitor(monitor).date(day)
+                                                .checkIn(day.atTime(8, 0)).checkOut(day.atTime(8, 0))
+                                                .autoClosed(true).build()));
+
+                AttendanceResponse shift = service.getReport(day, day, PageRequest.of(0, 10))
+                                .getContent().get(0).getAttendances().get(0);
+
+                assertEquals("AUTO_CLOSED", shift.getStatus());
+                assertEquals(0.0, shift.getHoursWorked());
+        }
+
         @Test
         void testGetReportFailsWhenMonitorRoleMissing() {
                 when(roleRepo.findByName("MONITOR")).thenReturn(Optional.empty());
@@ -196,43 +303,59 @@ class MonitorAttendanceServiceTest {
         }
 
         @Test
-        void testGenerateCsvProducesContent() {
-                MonitorReportResponse m = MonitorReportResponse.builder()
-                                .monitorCode("M001")
-                                .monitorName("Juan Pérez")
-                                .totalDaysWorked(3)
-                                .totalHoursWorked(10.5)
-                                .build();
+        void testWriteCsvUsesRollupTotalsPerMonitor() {
+                LocalDate day = LocalDate.of(2024, 1, 10);
+                MonitorHoursTotal juan = totals("M001", "Juan Pérez", 1, 210);
+                MonitorHoursTotal ana = totals("M002", "Ana Gómez", 0, 0);
+                when(hoursRollupService.streamTotals(day, day)).thenReturn(Stream.of(juan, ana));
+
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                service.writeMonitorReportCsv(day, day, out);
 
-                byte[] csv = service.generateMonitorReportCsv(List.of(m));
+                String content = out.toString(StandardCharsets.UTF_8);
 
-                String content = new String(csv, StandardCharsets.UTF_8);
+                assertTrue(content.contains("Código"), "Debe contener encabezado Código");
+                assertTrue(content.contains("M001,Juan Pérez,1,3.50"), "Debe convertir los minutos en horas");
+                assertTrue(content.contains("M002,Ana Gómez,0,0.00"), "Debe incluir monitores sin turnos");
+        }
+
+        private MonitorHoursTotal totals(String code, String name, long days, long minutes) {
+                MonitorHoursTotal row = mock(MonitorHoursTotal.class);
+                when(row.getMonitorCode()).thenReturn(code);
+                when(row.getMonitorName()).thenReturn(name);
+                when(row.getDaysWorked()).thenReturn(days);
+                when(row.getMinutesWorked()).thenReturn(minutes);
+                return row;
+        }
 
-                System.out.println("--- CSV generado ---");
-                System.out.println(content);
-                System.out.println("--------------------");
+        @Test
+        void testWritePdfReturnsBytes() {
+                LocalDate day = LocalDate.now();
 
-                assertTrue(content.contains("Código") || content.contains("\"Código\""),
-                                "Debe contener encabezado Código");
+                MonitorHoursTotal row = totals("M001", "Juan Pérez", 1, 330);
+                when(hoursRollupService.streamTotals(day.minusDays(3), day)).thenReturn(Stream.of(row));
 
-                assertTrue(content.contains("M001") || content.contains("\"M001\""),
-                                "Debe contener código del monitor");
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                service.writeMonitorReportPdf(day.minusDays(3), day, out);
+
+                assertTrue(out.size() > 100);
         }
 
         @Test
-        void testGeneratePdfReturnsBytes() {
-                MonitorReportResponse m = MonitorReportResponse.builder()
-                                .monitorCode("M001")
-                                .monitorName("Juan Pérez")
-                                .totalDaysWorked(3)
-                                .totalHoursWorked(5.5)
-                                .build();
+        void testWritePdfFlushesLargeTablesInChunks() {
+                LocalDate day = LocalDate.of(2024, 1, 10);
+                List<MonitorHoursTotal> rows = new ArrayList<>();
+                for (int i = 0; i < 450; i++) {
+                        rows.add(totals(String.format("M%03d", i), "Monitor " + i, 1, 120));
+                }
+
+                when(hoursRollupService.streamTotals(day, day)).thenReturn(rows.stream());
 
-                byte[] pdf = service.generateMonitorReportPdf(List.of(m),
-                                LocalDate.now().minusDays(3),
-                                LocalDate.now());
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                service.writeMonitorReportPdf(day, day, out);
 
-                assertNotNull(pdf);
-                assertTrue(pdf.length > 100);
+                String pdf = out.toString(StandardCharsets.ISO_8859_1);
+                assertTrue(pdf.startsWith("%PDF"));
+                assertTrue(pdf.contains("%%EOF"));
         }
 }
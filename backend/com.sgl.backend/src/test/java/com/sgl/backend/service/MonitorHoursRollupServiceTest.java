@@ -0,0 +1,70 @@
+package com.sgl.backend.service;
+
+import com.sgl.backend.entity.MonitorHoursRollup;
+import com.sgl.backend.repository.MonitorAttendanceRepository;
+import com.sgl.backend.repository.MonitorAttendanceRepository.MonitorShiftRow;
+import com.sgl.backend.repository.MonitorHoursRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MonitorHoursRollupServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 1, 10);
+
+    @Mock
+    private MonitorHoursRollupRepository rollupRepo;
+
+    @Mock
+    private MonitorAttendanceRepository attendanceRepo;
+
+    @InjectMocks
+    private MonitorHoursRollupService rollupService;
+
+    @Test
+    void recordShift_incrementsMonitorDay() {
+        rollupService.recordShift("M001", DAY, 90);
+
+        verify(rollupRepo).increment("M001", DAY, 90L, 1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebuild_sumsShiftsPerMonitorAndDay() {
+        List<MonitorShiftRow> shifts = List.of(
+                shift("M001", DAY.atTime(8, 0), DAY.atTime(10, 0)),
+                shift("M001", DAY.atTime(14, 0), DAY.atTime(15, 30)),
+                shift("M002", DAY.plusDays(1).atTime(8, 0), DAY.plusDays(1).atTime(8, 45)));
+        when(attendanceRepo.streamClosedShifts()).thenReturn(shifts.stream());
+
+        assertThat(rollupService.rebuild()).isEqualTo(2);
+
+        verify(rollupRepo).deleteAllInBatch();
+        ArgumentCaptor<List<MonitorHoursRollup>> saved = ArgumentCaptor.forClass(List.class);
+        verify(rollupRepo).saveAll(saved.capture());
+        assertThat(saved.getValue()).extracting(MonitorHoursRollup::getMonitorCode, MonitorHoursRollup::getMinutes,
+                MonitorHoursRollup::getShifts)
+                .containsExactly(tuple("M001", 210L, 2), tuple("M002", 45L, 1));
+    }
+
+    private MonitorShiftRow shift(String code, LocalDateTime checkIn, LocalDateTime checkOut) {
+        MonitorShiftRow row = mock(MonitorShiftRow.class);
+        when(row.getMonitorCode()).thenReturn(code);
+        when(row.getDate()).thenReturn(checkIn.toLocalDate());
+        when(row.getCheckIn()).thenReturn(checkIn);
+        when(row.getCheckOut()).thenReturn(checkOut);
+        return row;
+    }
+}
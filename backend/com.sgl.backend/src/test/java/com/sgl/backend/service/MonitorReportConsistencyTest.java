@@ -0,0 +1,72 @@
+package com.sgl.backend.service;
+
+import com.sgl.backend.dto.MonitorReportResponse;
+import com.sgl.backend.entity.MonitorAttendance;
+import com.sgl.backend.entity.Role;
+import com.sgl.backend.entity.User;
+import com.sgl.backend.repository.MonitorAttendanceRepository;
+import com.sgl.backend.repository.RoleRepository;
+import com.sgl.backend.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The JSON report is computed from raw shifts and the CSV/PDF exports from
+// the hours rollup; both must apply the same days-worked rule.
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ MonitorAttendanceService.class, MonitorHoursRollupService.class, OnDutyRegistry.class,
+        ReportCache.class, SimpleMeterRegistry.class })
+class MonitorReportConsistencyTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 1, 10);
+
+    @Autowired
+    private MonitorAttendanceService service;
+
+    @Autowired
+    private MonitorHoursRollupService rollupService;
+
+    @Autowired
+    private MonitorAttendanceRepository attendanceRepo;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private RoleRepository roleRepo;
+
+    @Test
+    void jsonReportAndCsvExport_countTheSameDays() {
+        Role role = roleRepo.save(Role.builder().name("MONITOR").build());
+        User monitor = userRepo.save(User.builder().code("M001").name("Juan").role(role).build());
+        attendanceRepo.save(MonitorAttendance.builder().monitor(monitor).date(DAY)
+                .checkIn(DAY.atTime(8, 0)).checkOut(DAY.atTime(10, 30)).build());
+        attendanceRepo.save(MonitorAttendance.builder().monitor(monitor).date(DAY.plusDays(1))
+                .checkIn(DAY.plusDays(1).atTime(8, 0)).build());
+        attendanceRepo.save(MonitorAttendance.builder().monitor(monitor).date(DAY.plusDays(2))
+                .checkIn(DAY.plusDays(2).atTime(8, 0)).checkOut(DAY.plusDays(2).atTime(8, 0))
+                .autoClosed(true).build());
+        rollupService.rebuild();
+
+        MonitorReportResponse json = service.getReport(DAY, DAY.plusDays(2), PageRequest.of(0, 10))
+                .getContent().get(0);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.writeMonitorReportCsv(DAY, DAY.plusDays(2), out);
+
+        assertThat(json.getTotalDaysWorked()).isEqualTo(1);
+        assertThat(out.toString(StandardCharsets.UTF_8))
+                .contains("M001,Juan," + json.getTotalDaysWorked() + ","
+                        + String.format("%.2f", json.getTotalHoursWorked()));
+    }
+}
@@ -0,0 +1,105 @@
+package com.sgl.backend.service;
+
+import com.sgl.backend.dto.OnDutyResponse;
+import com.sgl.backend.entity.MonitorAttendance;
+import com.sgl.backend.entity.User;
+import com.sgl.backend.repository.MonitorAttendanceRepository;
+import com.sgl.backend.service.ReportCache.Report;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MonitorShiftSweeperTest {
+
+    @Mock
+    private MonitorAttendanceRepository attendanceRepo;
+
+    @Mock
+    private OnDutyRegistry onDutyRegistry;
+
+    @Mock
+    private ReportCache reportCache;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private MonitorShiftSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        sweeper = new MonitorShiftSweeper(attendanceRepo, onDutyRegistry, reportCache, meterRegistry);
+    }
+
+    @Test
+    void sweep_closesStaleShiftsInOneUpdate() {
+        LocalDate day = LocalDate.of(2024, 1, 10);
+        when(attendanceRepo.findOpenShiftsCheckedInBefore(any())).thenReturn(List.of(
+                shift(1L, "M001", day.atTime(8, 0)),
+                shift(2L, "M002", day.atTime(9, 0))));
+        when(attendanceRepo.autoCloseShifts(List.of(1L, 2L))).thenReturn(2);
+
+        assertThat(sweeper.sweep()).isEqualTo(2);
+
+        verify(attendanceRepo, times(1)).autoCloseShifts(any());
+        verify(reportCache).invalidate(Set.of(Report.MONITOR), day);
+        assertThat(meterRegistry.counter("monitor.shifts.auto_closed").count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void sweep_todaysStaleShift_leavesDutyRoster() {
+        LocalDateTime checkIn = LocalDate.now().atStartOfDay();
+        when(attendanceRepo.findOpenShiftsCheckedInBefore(any())).thenReturn(List.of(shift(1L, "M001", checkIn)));
+        when(attendanceRepo.autoCloseShifts(List.of(1L))).thenReturn(1);
+
+        sweeper.sweep();
+
+        verify(onDutyRegistry).closed("M001");
+    }
+
+    @Test
+    void sweep_earlierDayShift_keepsTodaysOpenShiftOnDuty() {
+        LocalDateTime yesterday = LocalDate.now().minusDays(1).atTime(8, 0);
+        OnDutyRegistry registry = new OnDutyRegistry(attendanceRepo);
+        registry.opened(shift(2L, "M001", LocalDate.now().atStartOfDay()));
+        when(attendanceRepo.findOpenShiftsCheckedInBefore(any())).thenReturn(List.of(shift(1L, "M001", yesterday)));
+        when(attendanceRepo.autoCloseShifts(List.of(1L))).thenReturn(1);
+
+        MonitorShiftSweeper realRegistrySweeper = new MonitorShiftSweeper(attendanceRepo, registry, reportCache,
+                meterRegistry);
+        assertThat(realRegistrySweeper.sweep()).isEqualTo(1);
+
+        assertThat(registry.onDuty()).extracting(OnDutyResponse::getMonitorCode).containsExactly("M001");
+        verify(reportCache).invalidate(Set.of(Report.MONITOR), yesterday.toLocalDate());
+    }
+
+    @Test
+    void sweep_nothingStale_updatesNothing() {
+        when(attendanceRepo.findOpenShiftsCheckedInBefore(any())).thenReturn(List.of());
+
+        assertThat(sweeper.sweep()).isZero();
+
+        verify(attendanceRepo, never()).autoCloseShifts(any());
+        verifyNoInteractions(onDutyRegistry, reportCache);
+    }
+
+    private MonitorAttendance shift(Long id, String code, LocalDateTime checkIn) {
+        return MonitorAttendance.builder()
+                .id(id)
+                .monitor(User.builder().code(code).build())
+                .date(checkIn.toLocalDate())
+                .checkIn(checkIn)
+                .build();
+    }
+}
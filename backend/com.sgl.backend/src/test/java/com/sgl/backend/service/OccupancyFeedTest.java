@@ -0,0 +1,67 @@
+package com.sgl.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OccupancyFeedTest {
+
+    @Mock
+    private DailyAttendanceIndex attendanceIndex;
+
+    @InjectMocks
+    private OccupancyFeed feed;
+
+    @Test
+    void current_readsTodaysCount() {
+        when(attendanceIndex.countAttended(LocalDate.now())).thenReturn(7L);
+
+        assertThat(feed.current().getPresent()).isEqualTo(7);
+        assertThat(feed.current().getDate()).isEqualTo(LocalDate.now());
+    }
+
+    @Test
+    void publish_sendsOnlyWhenCountChanges() {
+        when(attendanceIndex.countAttended(LocalDate.now())).thenReturn(3L);
+        RecordingEmitter emitter = new RecordingEmitter();
+        feed.register(emitter);
+
+        feed.publish();
+        feed.publish();
+        when(attendanceIndex.countAttended(LocalDate.now())).thenReturn(4L);
+        feed.publish();
+
+        assertThat(emitter.sent).isEqualTo(3);
+    }
+
+    @Test
+    void publish_dropsCompletedEmitter() {
+        when(attendanceIndex.countAttended(LocalDate.now())).thenReturn(1L);
+        SseEmitter emitter = feed.subscribe();
+        assertThat(feed.subscriberCount()).isEqualTo(1);
+
+        emitter.complete();
+        when(attendanceIndex.countAttended(LocalDate.now())).thenReturn(2L);
+        feed.publish();
+
+        assertThat(feed.subscriberCount()).isZero();
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private int sent;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sent++;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.sgl.backend.service;
+
+import com.sgl.backend.dto.OnDutyResponse;
+import com.sgl.backend.entity.MonitorAttendance;
+import com.sgl.backend.entity.User;
+import com.sgl.backend.repository.MonitorAttendanceRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OnDutyRegistryTest {
+
+    @Mock
+    private MonitorAttendanceRepository attendanceRepo;
+
+    @InjectMocks
+    private OnDutyRegistry registry;
+
+    @Test
+    void reload_loadsTodaysOpenShiftsOrderedByCheckIn() {
+        when(attendanceRepo.findOpenShifts(LocalDate.now())).thenReturn(List.of(
+                shift("M002", LocalDateTime.now().minusHours(1)),
+                shift("M001", LocalDateTime.now().minusHours(3))));
+
+        registry.reload();
+
+        assertThat(registry.onDuty()).extracting(OnDutyResponse::getMonitorCode).containsExactly("M001", "M002");
+    }
+
+    @Test
+    void reload_dropsShiftsClosedSinceLastLoad() {
+        registry.opened(shift("M001", LocalDateTime.now()));
+        when(attendanceRepo.findOpenShifts(LocalDate.now())).thenReturn(List.of());
+
+        registry.reload();
+
+        assertThat(registry.onDuty()).isEmpty();
+    }
+
+    @Test
+    void openedAndClosed_insideTransaction_waitForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            registry.opened(shift("M001", LocalDateTime.now()));
+            assertThat(registry.onDuty()).isEmpty();
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+            assertThat(registry.onDuty()).extracting(OnDutyResponse::getMonitorName).containsExactly("Monitor M001");
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        registry.closed("M001");
+        assertThat(registry.onDuty()).isEmpty();
+    }
+
+    private MonitorAttendance shift(String code, LocalDateTime checkIn) {
+        User monitor = User.builder().code(code).name("Monitor " + code).build();
+        return MonitorAttendance.builder().monitor(monitor).date(checkIn.toLocalDate()).checkIn(checkIn).build();
+    }
+}
@@ -2,19 +2,34 @@ package com.sgl.backend.service;
 
 import com.sgl.backend.dto.OpacUserInfo;
 import com.sgl.backend.exception.SglException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.*;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,6 +38,9 @@ class OpacServiceTest {
     @Mock
     private RestTemplate restTemplate;
 
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private OpacService opacService;
 
@@ -91,6 +109,122 @@ class OpacServiceTest {
         assertThat(ex.getMessage()).contains("OPAC user info error");
     }
 
+    @Test
+    void fetchUserInfo_serverErrorOrTimeout_reportsUnavailable() {
+        String code = "50300";
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(OpacUserInfo.class)))
+                .thenThrow(HttpServerErrorException.create(HttpStatus.SERVICE_UNAVAILABLE, "Unavailable", null, null, null))
+                .thenThrow(new ResourceAccessException("Read timed out"));
+
+        SglException serverError = assertThrows(SglException.class, () -> opacService.fetchUserInfo(code));
+        SglException timeout = assertThrows(SglException.class, () -> opacService.fetchUserInfo(code));
+
+        assertThat(serverError.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(timeout.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @Test
+    void fetchUserInfo_repeatedCode_servedFromCache() {
+        String code = "2025003";
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(OpacUserInfo.class)))
+                .thenReturn(ResponseEntity.ok(new OpacUserInfo("Jane Doe", "3743", code, null, null)));
+
+        opacService.fetchUserInfo(code);
+        OpacUserInfo second = opacService.fetchUserInfo(code);
+
+        assertThat(second.getName()).isEqualTo("Jane Doe");
+        verify(restTemplate, times(1)).exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class),
+                eq(OpacUserInfo.class));
+        assertThat(meterRegistry.counter("opac.lookups", "result", "miss").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("opac.lookups", "result", "hit").count()).isEqualTo(1);
+    }
+
+    @Test
+    void fetchUserInfo_notFound_isCachedNegatively() {
+        String code = "40400";
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(OpacUserInfo.class)))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null));
+
+        assertThrows(SglException.class, () -> opacService.fetchUserInfo(code));
+        SglException ex = assertThrows(SglException.class, () -> opacService.fetchUserInfo(code));
+
+        assertThat(ex.getStatus()).isEqualTo(HttpStatus.NOT_FOUND);
+        verify(restTemplate, times(1)).exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class),
+                eq(OpacUserInfo.class));
+        assertThat(meterRegistry.counter("opac.lookups", "result", "negative_hit").count()).isEqualTo(1);
+    }
+
+    @Test
+    void fetchUserInfo_transientError_isNotCached() {
+        String code = "50001";
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(OpacUserInfo.class)))
+                .thenThrow(new RuntimeException("Connection refused"));
+
+        assertThrows(SglException.class, () -> opacService.fetchUserInfo(code));
+        assertThrows(SglException.class, () -> opacService.fetchUserInfo(code));
+
+        verify(restTemplate, times(2)).exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class),
+                eq(OpacUserInfo.class));
+    }
+
+    @Test
+    @Timeout(5)
+    void fetchUserInfo_error_doesNotLeaveLookupPending() {
+        String code = "50002";
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(OpacUserInfo.class)))
+                .thenThrow(new StackOverflowError())
+                .thenReturn(ResponseEntity.ok(new OpacUserInfo("Jane Doe", "3743", code, null, null)));
+
+        assertThrows(StackOverflowError.class, () -> opacService.fetchUserInfo(code));
+
+        assertThat(opacService.fetchUserInfo(code).getName()).isEqualTo("Jane Doe");
+    }
+
+    @Test
+    void fetchUserInfo_expiredEntry_isFetchedAgain() {
+        String code = "2025004";
+        setField(opacService, "ttl", Duration.ZERO);
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(OpacUserInfo.class)))
+                .thenReturn(ResponseEntity.ok(new OpacUserInfo("Jane Doe", "3743", code, null, null)));
+
+        opacService.fetchUserInfo(code);
+        opacService.fetchUserInfo(code);
+
+        verify(restTemplate, times(2)).exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class),
+                eq(OpacUserInfo.class));
+    }
+
+    @Test
+    void fetchUserInfo_concurrentLookups_shareOneRequest() throws Exception {
+        String code = "2025005";
+        CountDownLatch requestStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(OpacUserInfo.class)))
+                .thenAnswer(inv -> {
+                    requestStarted.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return ResponseEntity.ok(new OpacUserInfo("Jane Doe", "3743", code, null, null));
+                });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<OpacUserInfo> first = executor.submit(() -> opacService.fetchUserInfo(code));
+            assertThat(requestStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<OpacUserInfo> second = executor.submit(() -> opacService.fetchUserInfo(code));
+            while (meterRegistry.counter("opac.lookups", "result", "shared").count() == 0) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS).getName()).isEqualTo("Jane Doe");
+            assertThat(second.get(5, TimeUnit.SECONDS).getName()).isEqualTo("Jane Doe");
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(restTemplate, times(1)).exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class),
+                eq(OpacUserInfo.class));
+    }
+
     private void setField(Object target, String fieldName, Object value) {
         try {
             var field = target.getClass().getDeclaredField(fieldName);
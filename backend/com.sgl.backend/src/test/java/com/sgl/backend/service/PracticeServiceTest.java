@@ -191,27 +191,26 @@ class PracticeServiceTest {
 
         @Test
         void getMySchedules_returnsPage() {
-                Laboratory lab = Laboratory.builder().name("Lab X").build();
-                PracticeSchedule s1 = PracticeSchedule.builder()
+                PracticeResponse s1 = PracticeResponse.builder()
                                 .id(1L)
                                 .subject("Electrónica I")
                                 .practiceType(PracticeType.ELECTRONICA)
-                                .laboratory(lab)
+                                .laboratoryName("Lab X")
                                 .durationMinutes(90)
                                 .build();
 
-                PracticeSchedule s2 = PracticeSchedule.builder()
+                PracticeResponse s2 = PracticeResponse.builder()
                                 .id(2L)
                                 .subject("Física II")
                                 .practiceType(PracticeType.FISICA)
-                                .laboratory(lab)
+                                .laboratoryName("Lab X")
                                 .durationMinutes(120)
                                 .build();
 
                 Pageable pageable = PageRequest.of(0, 10);
-                Page<PracticeSchedule> page = new PageImpl<>(List.of(s1, s2), pageable, 2);
+                Page<PracticeResponse> page = new PageImpl<>(List.of(s1, s2), pageable, 2);
 
-                when(scheduleRepo.findByTeacherCode("DOC123", pageable)).thenReturn(page);
+                when(scheduleRepo.findResponsesByTeacherCode("DOC123", pageable)).thenReturn(page);
 
                 Page<PracticeResponse> result = practiceService.getMySchedules("DOC123", pageable);
 
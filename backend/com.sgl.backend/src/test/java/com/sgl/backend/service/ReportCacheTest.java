@@ -0,0 +1,97 @@
+package com.sgl.backend.service;
+
+import com.sgl.backend.service.ReportCache.Report;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReportCacheTest {
+
+    private static final LocalDate FEB_1 = LocalDate.of(2024, 2, 1);
+    private static final LocalDate FEB_29 = LocalDate.of(2024, 2, 29);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ReportCache cache = new ReportCache(meterRegistry);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void get_loadsOncePerKey() {
+        assertThat(load(Report.ATTENDANCE_SUMMARY, "a")).isEqualTo("a");
+        assertThat(load(Report.ATTENDANCE_SUMMARY, "b")).isEqualTo("a");
+        assertThat(load(Report.ATTENDANCE_MONTHLY, "c")).isEqualTo("c");
+
+        assertThat(loads).hasValue(2);
+        assertThat(meterRegistry.counter("report.cache.requests", "report", "ATTENDANCE_SUMMARY", "result", "hit")
+                .count()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidate_dropsOnlyPeriodsContainingTheDate() {
+        load(Report.ATTENDANCE_SUMMARY, "feb");
+        cache.get(Report.ATTENDANCE_SUMMARY, FEB_1.plusMonths(1), FEB_29.plusMonths(1), null, () -> "mar");
+        load(Report.MONITOR, "monitor");
+
+        cache.invalidate(ReportCache.ATTENDANCE_REPORTS, LocalDate.of(2024, 2, 10));
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(load(Report.ATTENDANCE_SUMMARY, "feb2")).isEqualTo("feb2");
+        assertThat(load(Report.MONITOR, "other")).isEqualTo("monitor");
+    }
+
+    @Test
+    void invalidate_insideTransaction_waitsForCompletionAndSkipsConcurrentLoads() {
+        load(Report.ATTENDANCE_SUMMARY, "before");
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidate(Set.of(Report.ATTENDANCE_SUMMARY), FEB_1);
+            assertThat(cache.size()).isEqualTo(1);
+
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                    TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void get_resultLoadedDuringWrite_isNotStored() {
+        String value = cache.get(Report.ATTENDANCE_SUMMARY, FEB_1, FEB_29, null, () -> {
+            cache.invalidate(ReportCache.ATTENDANCE_REPORTS, FEB_1);
+            return "stale";
+        });
+
+        assertThat(value).isEqualTo("stale");
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void get_evictsLeastRecentlyUsedPastMaxEntries() {
+        ReflectionTestUtils.setField(cache, "maxEntries", 2);
+        cache.get(Report.ATTENDANCE_SUMMARY, FEB_1, FEB_29, null, () -> "feb");
+        cache.get(Report.ATTENDANCE_SUMMARY, FEB_1.plusMonths(1), FEB_29.plusMonths(1), null, () -> "mar");
+        cache.get(Report.ATTENDANCE_SUMMARY, FEB_1, FEB_29, null, () -> "unused");
+        cache.get(Report.ATTENDANCE_SUMMARY, FEB_1.plusMonths(2), FEB_29.plusMonths(2), null, () -> "apr");
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get(Report.ATTENDANCE_SUMMARY, FEB_1, FEB_29, null, () -> "reloaded")).isEqualTo("feb");
+    }
+
+    private String load(Report report, String value) {
+        return cache.get(report, FEB_1, FEB_29, null, () -> {
+            loads.incrementAndGet();
+            return value;
+        });
+    }
+}
@@ -0,0 +1,201 @@
+package com.sgl.backend.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sgl.backend.dto.ReportJobRequest;
+import com.sgl.backend.dto.ReportJobRequest.ReportFormat;
+import com.sgl.backend.dto.ReportJobRequest.ReportType;
+import com.sgl.backend.dto.ReportJobResponse;
+import com.sgl.backend.dto.ReportJobResponse.JobStatus;
+import com.sgl.backend.exception.SglException;
+
+class ReportJobServiceTest {
+
+        @Mock
+        private AttendanceService attendanceService;
+
+        @Mock
+        private MonitorAttendanceService monitorAttendanceService;
+
+        @TempDir
+        Path dir;
+
+        private ThreadPoolTaskExecutor executor;
+        private ReportJobService service;
+
+        @BeforeEach
+        void setup() throws Exception {
+                MockitoAnnotations.openMocks(this);
+
+                executor = new ThreadPoolTaskExecutor();
+                executor.setCorePoolSize(1);
+                executor.setMaxPoolSize(1);
+                executor.setQueueCapacity(1);
+                executor.initialize();
+
+                service = new ReportJobService(attendanceService, monitorAttendanceService, executor);
+                ReflectionTestUtils.setField(service, "dir", dir.toString());
+                ReflectionTestUtils.setField(service, "ttl", Duration.ofHours(1));
+                service.init();
+        }
+
+        @AfterEach
+        void tearDown() {
+                executor.shutdown();
+        }
+
+        @Test
+        void submit_runsJobAndStoresArtifact() throws Exception {
+                doAnswer(inv -> {
+                        inv.getArgument(2, OutputStream.class).write("a,b".getBytes(StandardCharsets.UTF_8));
+                        return null;
+                }).when(attendanceService).writeAttendanceCsv(eq(2024), eq(2), any(OutputStream.class));
+
+                ReportJobResponse job = service.submit(attendanceRequest(ReportFormat.CSV, 2));
+                ReportJobResponse done = awaitFinished(job.getId());
+
+                assertEquals(JobStatus.DONE, done.getStatus());
+                assertEquals("reporte_asistencia_2024_02.csv", done.getFileName());
+                Resource artifact = service.getArtifact(job.getId());
+                assertEquals("a,b", new String(artifact.getContentAsByteArray(), StandardCharsets.UTF_8));
+        }
+
+        @Test
+        void submit_identicalPendingRequest_sharesJob() throws Exception {
+                CountDownLatch release = new CountDownLatch(1);
+                doAnswer(inv -> release.await(5, TimeUnit.SECONDS))
+                                .when(monitorAttendanceService).writeMonitorReportPdf(any(), any(), any());
+
+                ReportJobResponse first = service.submit(monitorRequest());
+                ReportJobResponse second = service.submit(monitorRequest());
+                release.countDown();
+
+                assertEquals(first.getId(), second.getId());
+                awaitFinished(first.getId());
+                verify(monitorAttendanceService, times(1)).writeMonitorReportPdf(any(), any(), any());
+
+                ReportJobResponse third = service.submit(monitorRequest());
+                assertNotEquals(first.getId(), third.getId());
+                awaitFinished(third.getId());
+        }
+
+        @Test
+        void submit_queueFull_rejects() throws Exception {
+                CountDownLatch release = new CountDownLatch(1);
+                doAnswer(inv -> release.await(5, TimeUnit.SECONDS))
+                                .when(attendanceService).writeAttendancePdf(anyInt(), anyInt(), any());
+
+                ReportJobResponse running = service.submit(attendanceRequest(ReportFormat.PDF, 1));
+                ReportJobResponse queued = service.submit(attendanceRequest(ReportFormat.PDF, 2));
+
+                try {
+                        SglException ex = assertThrows(SglException.class,
+                                        () -> service.submit(attendanceRequest(ReportFormat.PDF, 3)));
+                        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatus());
+                } finally {
+                        release.countDown();
+                }
+                // let both jobs finish writing before the temp dir is removed
+                awaitFinished(running.getId());
+                awaitFinished(queued.getId());
+        }
+
+        @Test
+        void failedJob_reportsErrorAndLeavesNoFile() throws Exception {
+                doThrow(new IllegalStateException("boom"))
+                                .when(attendanceService).writeAttendanceCsv(anyInt(), anyInt(), any());
+
+                ReportJobResponse job = awaitFinished(service.submit(attendanceRequest(ReportFormat.CSV, 2)).getId());
+
+                assertEquals(JobStatus.FAILED, job.getStatus());
+                assertEquals("boom", job.getError());
+                assertEquals(0, Files.list(dir).count());
+                SglException ex = assertThrows(SglException.class, () -> service.getArtifact(job.getId()));
+                assertEquals(HttpStatus.CONFLICT, ex.getStatus());
+        }
+
+        @Test
+        void purgeExpired_deletesArtifactAndForgetsJob() throws Exception {
+                ReportJobResponse job = awaitFinished(service.submit(attendanceRequest(ReportFormat.CSV, 2)).getId());
+                assertEquals(1, Files.list(dir).count());
+
+                ReflectionTestUtils.setField(service, "ttl", Duration.ZERO);
+
+                assertEquals(1, service.purgeExpired());
+                assertEquals(0, Files.list(dir).count());
+                SglException ex = assertThrows(SglException.class, () -> service.getJob(job.getId()));
+                assertEquals(HttpStatus.NOT_FOUND, ex.getStatus());
+        }
+
+        @Test
+        void init_removesOrphanedArtifacts() throws Exception {
+                Files.writeString(dir.resolve("report-old.pdf"), "x");
+                Files.writeString(dir.resolve("keep.txt"), "x");
+
+                service.init();
+
+                assertFalse(Files.exists(dir.resolve("report-old.pdf")));
+                assertTrue(Files.exists(dir.resolve("keep.txt")));
+        }
+
+        @Test
+        void submit_attendanceWithoutMonth_throws() {
+                ReportJobRequest request = attendanceRequest(ReportFormat.PDF, 2);
+                request.setMonth(null);
+
+                assertThrows(SglException.class, () -> service.submit(request));
+                verifyNoInteractions(attendanceService);
+        }
+
+        private ReportJobResponse awaitFinished(String id) throws InterruptedException {
+                for (int i = 0; i < 100; i++) {
+                        ReportJobResponse job = service.getJob(id);
+                        if (job.getStatus() == JobStatus.DONE || job.getStatus() == JobStatus.FAILED) {
+                                return job;
+                        }
+                        Thread.sleep(50);
+                }
+                return fail("Report job did not finish");
+        }
+
+        private ReportJobRequest attendanceRequest(ReportFormat format, int month) {
+                ReportJobRequest request = new ReportJobRequest();
+                request.setType(ReportType.ATTENDANCE);
+                request.setFormat(format);
+                request.setYear(2024);
+                request.setMonth(month);
+                return request;
+        }
+
+        private ReportJobRequest monitorRequest() {
+                ReportJobRequest request = new ReportJobRequest();
+                request.setType(ReportType.MONITOR);
+                request.setFormat(ReportFormat.PDF);
+                request.setStart(LocalDate.of(2024, 2, 1));
+                request.setEnd(LocalDate.of(2024, 2, 29));
+                return request;
+        }
+}